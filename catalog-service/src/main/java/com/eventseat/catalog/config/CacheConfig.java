@@ -0,0 +1,53 @@
+package com.eventseat.catalog.config;
+
+import com.eventseat.catalog.repository.EventSearchKey;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * In-process Caffeine caches for read-mostly lookups. Each cache is bounded by
+ * size and TTL (Caffeine spec strings in application.properties) and records
+ * stats, so actuator publishes cache.gets/cache.puts/cache.evictions per cache
+ * under /actuator/metrics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String EVENTS_BY_ID = "eventsById";
+    public static final String VENUES_BY_ID = "venuesById";
+    public static final String EVENT_SEARCH = "eventSearch";
+
+    @Value("${catalog.cache.events.spec:maximumSize=10000,expireAfterWrite=5m}")
+    private String eventsSpec;
+
+    @Value("${catalog.cache.venues.spec:maximumSize=2000,expireAfterWrite=30m}")
+    private String venuesSpec;
+
+    @Value("${catalog.cache.event-search.spec:maximumSize=1000,expireAfterWrite=10s}")
+    private String eventSearchSpec;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager manager = new CaffeineCacheManager();
+        // Only the caches registered below exist; no on-the-fly unbounded caches
+        manager.setCacheNames(List.of());
+        manager.registerCustomCache(EVENTS_BY_ID, Caffeine.from(eventsSpec).recordStats().build());
+        manager.registerCustomCache(VENUES_BY_ID, Caffeine.from(venuesSpec).recordStats().build());
+        manager.registerCustomCache(EVENT_SEARCH, Caffeine.from(eventSearchSpec).recordStats().build());
+        return manager;
+    }
+
+    // Normalizes search filters so equivalent requests share one cache entry
+    @Bean
+    public KeyGenerator eventSearchKeyGenerator() {
+        return (target, method, params) -> EventSearchKey.of(params);
+    }
+}
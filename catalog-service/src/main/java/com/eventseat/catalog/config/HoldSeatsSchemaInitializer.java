@@ -0,0 +1,58 @@
+package com.eventseat.catalog.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Ensures the normalized hold_seats(hold_id, seat_id, event_id) table exists
+ * and backfills it from holds.seat_ids_csv for holds written before the table
+ * existed. Runs before other startup runners (e.g. the expiry wheel) because
+ * hold seat reads now go through this table.
+ */
+@Configuration
+public class HoldSeatsSchemaInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(HoldSeatsSchemaInitializer.class);
+
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    ApplicationRunner ensureHoldSeats(JdbcTemplate jdbcTemplate) {
+        return args -> {
+            String ddl = """
+                    CREATE TABLE IF NOT EXISTS hold_seats (
+                      hold_id BIGINT NOT NULL,
+                      seat_id BIGINT NOT NULL,
+                      event_id BIGINT NOT NULL,
+                      PRIMARY KEY (hold_id, seat_id),
+                      KEY idx_hold_seats_seat (seat_id),
+                      KEY idx_hold_seats_event_seat (event_id, seat_id)
+                    ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4
+                    """;
+            jdbcTemplate.execute(ddl);
+
+            // One set-based pass: turn "1,2,3" into a JSON array and explode it with
+            // JSON_TABLE. Malformed CSV rows are skipped (and counted) rather than
+            // failing the whole statement.
+            String backfill = """
+                    INSERT IGNORE INTO hold_seats (hold_id, seat_id, event_id)
+                    SELECT h.id, j.seat_id, h.event_id
+                    FROM holds h
+                    JOIN JSON_TABLE(CONCAT('[', h.seat_ids_csv, ']'), '$[*]' COLUMNS (seat_id BIGINT PATH '$')) j
+                    WHERE REGEXP_LIKE(h.seat_ids_csv, '^ *[0-9]+( *, *[0-9]+)* *$')
+                      AND NOT EXISTS (SELECT 1 FROM hold_seats hs WHERE hs.hold_id = h.id)
+                    """;
+            int rows = jdbcTemplate.update(backfill);
+            Integer malformed = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(1) FROM holds WHERE NOT REGEXP_LIKE(seat_ids_csv, '^ *[0-9]+( *, *[0-9]+)* *$')",
+                    Integer.class);
+            log.info("Ensured table 'hold_seats' exists; backfilled {} rows ({} holds with unparseable seat_ids_csv).",
+                    rows, malformed == null ? 0 : malformed);
+        };
+    }
+}
@@ -1,5 +1,6 @@
 package com.eventseat.catalog.config;
 
+import com.eventseat.catalog.repository.DailyPartitions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.ApplicationRunner;
@@ -8,7 +9,10 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.jdbc.core.JdbcTemplate;
 
 /**
- * Ensures idempotency table for inventory import exists.
+ * Ensures idempotency table for inventory import exists, plus the per-row
+ * results table the cached report pages from. Both are RANGE partitioned by
+ * day bucket so ImportIdempotencyPurgeJob can drop expired days; tables
+ * created before the bucket column are migrated in place.
  */
 @Configuration
 public class ImportSchemaInitializer {
@@ -21,14 +25,63 @@ public class ImportSchemaInitializer {
             String ddl = """
                     CREATE TABLE IF NOT EXISTS idempotency_imports (
                       `key` VARCHAR(128) NOT NULL,
+                      bucket INT NOT NULL,
                       request_hash VARCHAR(256) NOT NULL,
                       response_json MEDIUMTEXT NULL,
                       created_at DATETIME NOT NULL,
-                      PRIMARY KEY (`key`)
+                      PRIMARY KEY (`key`, bucket)
                     ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4
-                    """;
+                    """ + DailyPartitions.partitionClause();
             jdbcTemplate.execute(ddl);
-            log.info("Ensured table 'idempotency_imports' exists for catalog-service.");
+
+            String rowsDdl = """
+                    CREATE TABLE IF NOT EXISTS import_row_results (
+                      import_key VARCHAR(128) NOT NULL,
+                      bucket INT NOT NULL,
+                      row_no INT NOT NULL,
+                      success TINYINT(1) NOT NULL,
+                      seat_id BIGINT NULL,
+                      message VARCHAR(200) NULL,
+                      PRIMARY KEY (import_key, row_no, bucket),
+                      KEY idx_import_row_results_success (import_key, success, row_no)
+                    ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4
+                    """ + DailyPartitions.partitionClause();
+            jdbcTemplate.execute(rowsDdl);
+
+            // Tables created before day buckets: backfill the bucket from created_at
+            // (row results take the bucket of their import), then partition
+            if (!hasBucket(jdbcTemplate, "idempotency_imports")) {
+                jdbcTemplate.execute("ALTER TABLE idempotency_imports ADD COLUMN bucket INT NOT NULL DEFAULT 0 AFTER `key`");
+                jdbcTemplate.update("UPDATE idempotency_imports SET bucket = " + DailyPartitions.BUCKET_OF_CREATED_AT);
+            }
+            if (!hasBucket(jdbcTemplate, "import_row_results")) {
+                jdbcTemplate.execute("ALTER TABLE import_row_results ADD COLUMN bucket INT NOT NULL DEFAULT 0 AFTER import_key");
+                jdbcTemplate.update("UPDATE import_row_results r JOIN idempotency_imports i ON i.`key` = r.import_key "
+                        + "SET r.bucket = i.bucket");
+            }
+            partition(jdbcTemplate, "idempotency_imports", "`key`, bucket");
+            partition(jdbcTemplate, "import_row_results", "import_key, row_no, bucket");
+            log.info("Ensured tables 'idempotency_imports' and 'import_row_results' exist for catalog-service.");
         };
     }
+
+    private boolean hasBucket(JdbcTemplate jdbcTemplate, String table) {
+        Integer n = jdbcTemplate.queryForObject("SELECT COUNT(1) FROM information_schema.COLUMNS "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = 'bucket'", Integer.class, table);
+        return n != null && n > 0;
+    }
+
+    private void partition(JdbcTemplate jdbcTemplate, String table, String primaryKey) {
+        if (new DailyPartitions(jdbcTemplate, table).isPartitioned())
+            return;
+        try {
+            // MySQL requires the partitioning column in every unique key
+            jdbcTemplate.execute("ALTER TABLE " + table + " DROP PRIMARY KEY, ADD PRIMARY KEY (" + primaryKey + ") "
+                    + DailyPartitions.partitionClause());
+            log.info("Partitioned '{}' by day bucket.", table);
+        } catch (Exception ex) {
+            // Still usable unpartitioned; the purge job falls back to batched deletes
+            log.warn("Could not partition '{}': {}", table, ex.getMessage());
+        }
+    }
 }
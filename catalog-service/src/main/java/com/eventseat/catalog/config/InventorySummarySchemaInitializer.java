@@ -0,0 +1,43 @@
+package com.eventseat.catalog.config;
+
+import com.eventseat.catalog.repository.InventorySummaryJdbcRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Ensures the event_inventory_summary table exists and seeds it for events
+ * that have no summary row yet. Counters are then kept up to date by the hold,
+ * order and import write paths (see InventorySummaryJdbcRepository).
+ */
+@Configuration
+public class InventorySummarySchemaInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(InventorySummarySchemaInitializer.class);
+
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    ApplicationRunner ensureInventorySummary(JdbcTemplate jdbcTemplate, InventorySummaryJdbcRepository summaryRepo) {
+        return args -> {
+            String ddl = """
+                    CREATE TABLE IF NOT EXISTS event_inventory_summary (
+                      event_id BIGINT NOT NULL PRIMARY KEY,
+                      available_count BIGINT NOT NULL DEFAULT 0,
+                      held_count BIGINT NOT NULL DEFAULT 0,
+                      sold_count BIGINT NOT NULL DEFAULT 0,
+                      min_price DECIMAL(12,2) NULL,
+                      max_price DECIMAL(12,2) NULL,
+                      updated_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6)
+                    ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4
+                    """;
+            jdbcTemplate.execute(ddl);
+            int seeded = summaryRepo.seedMissing();
+            log.info("Ensured table 'event_inventory_summary' exists; seeded {} events.", seeded);
+        };
+    }
+}
@@ -0,0 +1,77 @@
+package com.eventseat.catalog.config;
+
+import com.eventseat.catalog.repository.SeatJdbcRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Adds seats.natural_key, a STORED generated column
+ * (section, row_label, seat_number joined by U+001F, nulls as empty), and a
+ * unique index on (event_id, natural_key) so imports can upsert atomically with
+ * INSERT ... ON DUPLICATE KEY UPDATE and concurrent imports cannot create
+ * duplicate seats.
+ *
+ * If legacy duplicates exist the unique index cannot be built; a non-unique
+ * index is created instead and imports fall back to lookup-then-write until the
+ * duplicates are cleaned up and the service restarted.
+ */
+@Configuration
+public class SeatNaturalKeySchemaInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatNaturalKeySchemaInitializer.class);
+
+    private static final String FALLBACK_INDEX = "idx_seats_event_natural_key";
+
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    ApplicationRunner ensureSeatNaturalKey(JdbcTemplate jdbcTemplate) {
+        return args -> {
+            if (count(jdbcTemplate, "SELECT COUNT(1) FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE() "
+                    + "AND TABLE_NAME = 'seats' AND COLUMN_NAME = 'natural_key'") == 0) {
+                jdbcTemplate.execute("""
+                        ALTER TABLE seats ADD COLUMN natural_key VARCHAR(152) GENERATED ALWAYS AS (
+                          CONCAT_WS(CHAR(31 USING utf8mb4), COALESCE(section,''), COALESCE(row_label,''), COALESCE(seat_number,''))
+                        ) STORED
+                        """);
+                log.info("Added generated column seats.natural_key");
+            }
+            if (indexExists(jdbcTemplate, SeatJdbcRepository.NATURAL_KEY_INDEX))
+                return;
+
+            long duplicates = count(jdbcTemplate, "SELECT COUNT(1) FROM (SELECT 1 FROM seats "
+                    + "GROUP BY event_id, natural_key HAVING COUNT(1) > 1) d");
+            if (duplicates == 0) {
+                jdbcTemplate.execute("ALTER TABLE seats ADD UNIQUE KEY " + SeatJdbcRepository.NATURAL_KEY_INDEX
+                        + " (event_id, natural_key)");
+                if (indexExists(jdbcTemplate, FALLBACK_INDEX)) {
+                    jdbcTemplate.execute("ALTER TABLE seats DROP INDEX " + FALLBACK_INDEX);
+                }
+                log.info("Created unique index {} on seats(event_id, natural_key)",
+                        SeatJdbcRepository.NATURAL_KEY_INDEX);
+            } else {
+                if (!indexExists(jdbcTemplate, FALLBACK_INDEX)) {
+                    jdbcTemplate.execute("ALTER TABLE seats ADD KEY " + FALLBACK_INDEX + " (event_id, natural_key)");
+                }
+                log.warn("{} (event_id, natural_key) groups have duplicate seats; unique index {} not created, "
+                        + "imports use lookup-then-write", duplicates, SeatJdbcRepository.NATURAL_KEY_INDEX);
+            }
+        };
+    }
+
+    private boolean indexExists(JdbcTemplate jdbcTemplate, String name) {
+        Long n = jdbcTemplate.queryForObject("SELECT COUNT(1) FROM information_schema.STATISTICS "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'seats' AND INDEX_NAME = ?", Long.class, name);
+        return n != null && n > 0;
+    }
+
+    private long count(JdbcTemplate jdbcTemplate, String sql) {
+        Long n = jdbcTemplate.queryForObject(sql, Long.class);
+        return n == null ? 0 : n;
+    }
+}
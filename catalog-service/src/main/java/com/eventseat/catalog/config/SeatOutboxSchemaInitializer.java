@@ -0,0 +1,42 @@
+package com.eventseat.catalog.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Ensures the seat_outbox table exists. Both services append to it (holds and
+ * releases here, sales in order-service), so each creates it on startup. Runs
+ * before SeatOutboxRelay positions its cursor.
+ */
+@Configuration
+public class SeatOutboxSchemaInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatOutboxSchemaInitializer.class);
+
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    ApplicationRunner ensureSeatOutbox(JdbcTemplate jdbcTemplate) {
+        return args -> {
+            String ddl = """
+                    CREATE TABLE IF NOT EXISTS seat_outbox (
+                      id BIGINT NOT NULL AUTO_INCREMENT,
+                      event_id BIGINT NOT NULL,
+                      seat_id BIGINT NOT NULL,
+                      status VARCHAR(16) NOT NULL,
+                      source VARCHAR(16) NOT NULL,
+                      created_at DATETIME(3) NOT NULL,
+                      PRIMARY KEY (id),
+                      KEY idx_seat_outbox_created (created_at)
+                    ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4
+                    """;
+            jdbcTemplate.execute(ddl);
+            log.info("Ensured table 'seat_outbox' exists.");
+        };
+    }
+}
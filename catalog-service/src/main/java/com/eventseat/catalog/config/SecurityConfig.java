@@ -1,5 +1,6 @@
 package com.eventseat.catalog.config;
 
+import jakarta.servlet.DispatcherType;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -36,8 +37,18 @@ public class SecurityConfig {
                 http
                                 .csrf(csrf -> csrf.disable())
                                 .authorizeHttpRequests(auth -> auth
+                                                // SSE completion re-dispatches async; the original request
+                                                // was already authorized
+                                                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                                                 // Holds GET requires auth (owner/admin checked server-side)
                                                 .requestMatchers(HttpMethod.GET, "/api/v1/holds/**").authenticated()
+                                                // Import job status/reports are for organizers/admins only
+                                                .requestMatchers(HttpMethod.GET, "/api/v1/inventory/**")
+                                                .hasAnyRole("ORGANIZER", "ADMIN")
+                                                // Seat change stream (long-lived SSE) is for organizers,
+                                                // admins and internal services, not anonymous clients
+                                                .requestMatchers(HttpMethod.GET, "/api/v1/seats/changes")
+                                                .hasAnyRole("ORGANIZER", "ADMIN", "SERVICE")
                                                 // Read-only APIs remain open in M1
                                                 .requestMatchers(HttpMethod.GET, "/api/v1/**").permitAll()
                                                 // Swagger/OpenAPI/Actuator/error open
@@ -7,11 +7,15 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import java.time.OffsetDateTime;
 
 @Entity
-@Table(name = "holds")
+@Table(name = "holds", indexes = {
+        // keyset-paginated expiry sweep: WHERE status=? AND id > ? ORDER BY id
+        @Index(name = "idx_holds_status_id", columnList = "status, id")
+})
 public class HoldEntity {
 
     public enum Status {
@@ -7,11 +7,15 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "seats")
+@Table(name = "seats", indexes = {
+        // per-event listings and seeks (InnoDB appends the id to secondary indexes)
+        @Index(name = "idx_seats_event", columnList = "event_id")
+})
 public class SeatEntity {
 
     public enum Status {
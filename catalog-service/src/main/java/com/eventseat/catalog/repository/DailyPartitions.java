@@ -0,0 +1,160 @@
+package com.eventseat.catalog.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Day-bucketed RANGE partitioning for tables that only keep rows for a
+ * retention window (the idempotency stores). Rows carry bucket = UTC epoch day
+ * of their creation; partitions are named b&lt;upper bound&gt; and a trailing
+ * pmax partition catches anything past the last pre-created day, so inserts
+ * never fail when maintenance lags. Expired days go with DROP PARTITION, whose
+ * cost does not depend on the number of rows.
+ *
+ * The services share no library module, so order-service carries an identical
+ * copy of this class; change both together.
+ */
+public class DailyPartitions {
+
+    /** Bucket of rows written before the bucket column existed. */
+    public static final String BUCKET_OF_CREATED_AT = "DATEDIFF(created_at, '1970-01-01')";
+
+    public record Stats(long rows, long bytes, int partitions) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String table;
+
+    public DailyPartitions(JdbcTemplate jdbcTemplate, String table) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.table = table;
+    }
+
+    public static int today() {
+        return (int) LocalDate.now(ZoneOffset.UTC).toEpochDay();
+    }
+
+    /**
+     * PARTITION BY clause for a new (or newly partitioned) table: one partition
+     * for everything before today, one for today and pmax.
+     */
+    public static String partitionClause() {
+        int t = today();
+        return "PARTITION BY RANGE (bucket) (PARTITION b" + t + " VALUES LESS THAN (" + t + "), "
+                + "PARTITION b" + (t + 1) + " VALUES LESS THAN (" + (t + 1) + "), "
+                + "PARTITION pmax VALUES LESS THAN MAXVALUE)";
+    }
+
+    public boolean isPartitioned() {
+        Integer n = jdbcTemplate.queryForObject("SELECT COUNT(1) FROM information_schema.PARTITIONS "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL",
+                Integer.class, table);
+        return n != null && n > 0;
+    }
+
+    /**
+     * Splits pmax so that every day up to today + daysAhead has its own
+     * partition. Returns the number of partitions added.
+     */
+    public int ensureAhead(int daysAhead) {
+        long last = today();
+        for (long bound : bounds()) {
+            last = Math.max(last, bound);
+        }
+        long target = today() + Math.max(0, daysAhead) + 1L;
+        if (last >= target)
+            return 0;
+        StringJoiner parts = new StringJoiner(", ");
+        for (long b = last + 1; b <= target; b++) {
+            parts.add("PARTITION b" + b + " VALUES LESS THAN (" + b + ")");
+        }
+        parts.add("PARTITION pmax VALUES LESS THAN MAXVALUE");
+        jdbcTemplate.execute("ALTER TABLE " + table + " REORGANIZE PARTITION pmax INTO (" + parts + ")");
+        return (int) (target - last);
+    }
+
+    /**
+     * Drops the partitions whose rows all have bucket &lt; cutoffBucket. Returns
+     * the number of partitions dropped.
+     */
+    public int dropBefore(int cutoffBucket) {
+        List<String> expired = new ArrayList<>();
+        jdbcTemplate.query("SELECT PARTITION_NAME, PARTITION_DESCRIPTION FROM information_schema.PARTITIONS "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL", rs -> {
+                    Long bound = parseBound(rs.getString("PARTITION_DESCRIPTION"));
+                    if (bound != null && bound <= cutoffBucket)
+                        expired.add(rs.getString("PARTITION_NAME"));
+                }, table);
+        if (expired.isEmpty())
+            return 0;
+        jdbcTemplate.execute("ALTER TABLE " + table + " DROP PARTITION " + String.join(", ", expired));
+        return expired.size();
+    }
+
+    /**
+     * Row count and size from information_schema; the statistics cache is
+     * bypassed so the numbers are current. The setting is session-wide, so it
+     * is reset before the pooled connection goes back.
+     */
+    public Stats stats() {
+        return jdbcTemplate.execute((ConnectionCallback<Stats>) con -> {
+            try (Statement st = con.createStatement()) {
+                st.execute("SET SESSION information_schema_stats_expiry = 0");
+                try {
+                    return readStats(st);
+                } finally {
+                    st.execute("SET SESSION information_schema_stats_expiry = DEFAULT");
+                }
+            }
+        });
+    }
+
+    private Stats readStats(Statement st) throws SQLException {
+        long rows = 0, bytes = 0;
+        try (ResultSet rs = st.executeQuery("SELECT TABLE_ROWS, DATA_LENGTH + INDEX_LENGTH AS size "
+                + "FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = '" + table
+                + "'")) {
+            if (rs.next()) {
+                rows = rs.getLong("TABLE_ROWS");
+                bytes = rs.getLong("size");
+            }
+        }
+        int partitions = 0;
+        try (ResultSet rs = st.executeQuery("SELECT COUNT(1) FROM information_schema.PARTITIONS "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = '" + table
+                + "' AND PARTITION_NAME IS NOT NULL")) {
+            if (rs.next())
+                partitions = rs.getInt(1);
+        }
+        return new Stats(rows, bytes, partitions);
+    }
+
+    private List<Long> bounds() {
+        List<Long> out = new ArrayList<>();
+        jdbcTemplate.query("SELECT PARTITION_DESCRIPTION FROM information_schema.PARTITIONS "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL", rs -> {
+                    Long bound = parseBound(rs.getString("PARTITION_DESCRIPTION"));
+                    if (bound != null)
+                        out.add(bound);
+                }, table);
+        return out;
+    }
+
+    private static Long parseBound(String description) {
+        if (description == null)
+            return null;
+        try {
+            return Long.parseLong(description.trim());
+        } catch (NumberFormatException ex) {
+            return null; // MAXVALUE
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package com.eventseat.catalog.repository;
 
+import com.eventseat.catalog.config.CacheConfig;
 import com.eventseat.catalog.web.dto.EventDto;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
@@ -32,6 +36,7 @@ public class EventJdbcRepository {
         return ts == null ? null : ts.toInstant().atOffset(ZoneOffset.UTC);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.EVENT_SEARCH, allEntries = true)
     public EventDto save(EventDto dto) {
         final String sql = "INSERT INTO events (organizer_id, venue_id, title, category, start_date_time, end_date_time, status) "
                 +
@@ -53,6 +58,10 @@ public class EventJdbcRepository {
         return dto;
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.EVENTS_BY_ID, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.EVENT_SEARCH, allEntries = true)
+    })
     public int update(Long id, EventDto dto) {
         final String sql = "UPDATE events SET organizer_id=?, venue_id=?, title=?, category=?, start_date_time=?, end_date_time=?, status=? "
                 +
@@ -68,6 +77,8 @@ public class EventJdbcRepository {
                 id);
     }
 
+    // Misses (empty) are not cached so newly created ids resolve immediately
+    @Cacheable(cacheNames = CacheConfig.EVENTS_BY_ID, key = "#id", unless = "#result == null")
     public Optional<EventDto> findById(Long id) {
         final String sql = "SELECT id, organizer_id, venue_id, title, category, start_date_time, end_date_time, status FROM events WHERE id=?";
         try {
@@ -110,11 +121,40 @@ public class EventJdbcRepository {
         }, safeSize, offset);
     }
 
+    /**
+     * Keyset page ordered by id DESC: events with id < beforeId (all when null).
+     */
+    public List<EventDto> findPageBefore(Long beforeId, int limit) {
+        final String sql = "SELECT id, organizer_id, venue_id, title, category, start_date_time, end_date_time, status "
+                +
+                "FROM events WHERE id < ? ORDER BY id DESC LIMIT ?";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            EventDto dto = new EventDto();
+            dto.setId(rs.getLong("id"));
+            dto.setOrganizerId(rs.getLong("organizer_id"));
+            dto.setVenueId(rs.getLong("venue_id"));
+            dto.setTitle(rs.getString("title"));
+            dto.setCategory(rs.getString("category"));
+            dto.setStartDateTime(fromTimestamp(rs.getTimestamp("start_date_time")));
+            dto.setEndDateTime(fromTimestamp(rs.getTimestamp("end_date_time")));
+            dto.setStatus(rs.getString("status"));
+            return dto;
+        }, beforeId == null ? Long.MAX_VALUE : beforeId, Math.max(1, limit));
+    }
+
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.EVENTS_BY_ID, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.EVENT_SEARCH, allEntries = true)
+    })
     public int publishIfDraft(Long id) {
         final String sql = "UPDATE events SET status=? WHERE id=? AND status=?";
         return jdbcTemplate.update(sql, "PUBLISHED", id, "DRAFT");
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.EVENTS_BY_ID, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.EVENT_SEARCH, allEntries = true)
+    })
     public int delete(Long id) {
         final String sql = "DELETE FROM events WHERE id=?";
         return jdbcTemplate.update(sql, id);
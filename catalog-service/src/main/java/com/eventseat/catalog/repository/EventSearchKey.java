@@ -0,0 +1,63 @@
+package com.eventseat.catalog.repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Locale;
+
+/**
+ * Canonical cache key for EventSearchRepository.search. Filters that select the
+ * same rows map to the same key: text filters go through filterText (exactly
+ * what search() binds) and are then lower-cased (MySQL's default collation
+ * compares case-insensitively), prices drop trailing zeros and date bounds are
+ * compared as instants.
+ */
+public record EventSearchKey(
+        int page,
+        int size,
+        String city,
+        String category,
+        Long organizerId,
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        Instant startFrom,
+        Instant endUntil) {
+
+    /**
+     * Builds a key from search() arguments in declaration order.
+     */
+    public static EventSearchKey of(Object... params) {
+        return new EventSearchKey(
+                Math.max(0, (Integer) params[0]),
+                Math.max(1, (Integer) params[1]),
+                text((String) params[2]),
+                text((String) params[3]),
+                (Long) params[4],
+                price((BigDecimal) params[5]),
+                price((BigDecimal) params[6]),
+                instant((OffsetDateTime) params[7]),
+                instant((OffsetDateTime) params[8]));
+    }
+
+    /**
+     * Text filter as search() binds it: trimmed, blank as null. The column
+     * collation is NO PAD, so "Paris " would otherwise match other rows than
+     * "Paris" while sharing its cache key.
+     */
+    public static String filterText(String s) {
+        return s == null || s.isBlank() ? null : s.trim();
+    }
+
+    private static String text(String s) {
+        String t = filterText(s);
+        return t == null ? null : t.toLowerCase(Locale.ROOT);
+    }
+
+    private static BigDecimal price(BigDecimal p) {
+        return p == null ? null : p.stripTrailingZeros();
+    }
+
+    private static Instant instant(OffsetDateTime odt) {
+        return odt == null ? null : odt.toInstant();
+    }
+}
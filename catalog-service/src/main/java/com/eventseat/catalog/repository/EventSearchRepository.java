@@ -1,6 +1,8 @@
 package com.eventseat.catalog.repository;
 
+import com.eventseat.catalog.config.CacheConfig;
 import com.eventseat.catalog.web.dto.EventSearchItem;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
@@ -24,6 +26,12 @@ public class EventSearchRepository {
         return odt == null ? null : Timestamp.from(odt.toInstant());
     }
 
+    /**
+     * Results are cached briefly per normalized filter set (EventSearchKey).
+     * sync=true coalesces concurrent misses for the same key into one query;
+     * event writes evict the whole cache.
+     */
+    @Cacheable(cacheNames = CacheConfig.EVENT_SEARCH, keyGenerator = "eventSearchKeyGenerator", sync = true)
     public List<EventSearchItem> search(
             int page,
             int size,
@@ -36,22 +44,26 @@ public class EventSearchRepository {
             OffsetDateTime endUntil) {
         StringBuilder sql = new StringBuilder();
         List<Object> args = new ArrayList<>();
+        // Bind the same normalized text the cache key is built from
+        city = EventSearchKey.filterText(city);
+        category = EventSearchKey.filterText(category);
 
         sql.append(
                 "SELECT e.id, e.organizer_id, e.venue_id, e.title, e.category, e.start_date_time, e.end_date_time, e.status, "
                         +
                         "       v.city, " +
-                        "       (SELECT COUNT(1) FROM seats s2 WHERE s2.event_id = e.id AND s2.status = 'AVAILABLE') AS available_seats_remaining "
-                        +
+                        "       COALESCE(eis.available_count, 0) AS available_seats_remaining " +
                         "FROM events e " +
                         "JOIN venues v ON v.id = e.venue_id " +
+                        // materialized counters maintained by the hold/order/import paths
+                        "LEFT JOIN event_inventory_summary eis ON eis.event_id = e.id " +
                         "WHERE 1=1 ");
 
-        if (city != null && !city.isBlank()) {
+        if (city != null) {
             sql.append(" AND v.city = ? ");
             args.add(city);
         }
-        if (category != null && !category.isBlank()) {
+        if (category != null) {
             sql.append(" AND e.category = ? ");
             args.add(category);
         }
@@ -60,16 +72,20 @@ public class EventSearchRepository {
             args.add(organizerId);
         }
         if (minPrice != null && maxPrice != null) {
-            // Event qualifies if it has ANY seat priced within the range
+            // Event qualifies if it has ANY seat priced within the range; the summary
+            // price range only prunes events that cannot have one
+            sql.append(" AND eis.min_price <= ? AND eis.max_price >= ? ");
+            args.add(maxPrice);
+            args.add(minPrice);
             sql.append(
                     " AND EXISTS (SELECT 1 FROM seats s3 WHERE s3.event_id = e.id AND s3.base_price BETWEEN ? AND ?) ");
             args.add(minPrice);
             args.add(maxPrice);
         } else if (minPrice != null) {
-            sql.append(" AND EXISTS (SELECT 1 FROM seats s3 WHERE s3.event_id = e.id AND s3.base_price >= ?) ");
+            sql.append(" AND eis.max_price >= ? ");
             args.add(minPrice);
         } else if (maxPrice != null) {
-            sql.append(" AND EXISTS (SELECT 1 FROM seats s3 WHERE s3.event_id = e.id AND s3.base_price <= ?) ");
+            sql.append(" AND eis.min_price <= ? ");
             args.add(maxPrice);
         }
         if (startFrom != null) {
@@ -89,7 +105,7 @@ public class EventSearchRepository {
         args.add(safeSize);
         args.add(offset);
 
-        return jdbcTemplate.query(sql.toString(), args.toArray(), (rs, rowNum) -> {
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> {
             EventSearchItem item = new EventSearchItem();
             item.setId(rs.getLong("id"));
             item.setOrganizerId(rs.getLong("organizer_id"));
@@ -104,6 +120,6 @@ public class EventSearchRepository {
             item.setCity(rs.getString("city"));
             item.setAvailableSeatsRemaining(rs.getLong("available_seats_remaining"));
             return item;
-        });
+        }, args.toArray());
     }
 }
@@ -7,12 +7,16 @@ import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.StringJoiner;
 
@@ -20,9 +24,11 @@ import java.util.StringJoiner;
 public class HoldJdbcRepository {
 
     private final JdbcTemplate jdbcTemplate;
+    private final SeatOutboxJdbcRepository outbox;
 
-    public HoldJdbcRepository(JdbcTemplate jdbcTemplate) {
+    public HoldJdbcRepository(JdbcTemplate jdbcTemplate, SeatOutboxJdbcRepository outbox) {
         this.jdbcTemplate = jdbcTemplate;
+        this.outbox = outbox;
     }
 
     private Timestamp toTs(OffsetDateTime odt) {
@@ -33,43 +39,96 @@ public class HoldJdbcRepository {
         return ts == null ? null : ts.toInstant().atOffset(ZoneOffset.UTC);
     }
 
-    public long insertActive(Long attendeeId, Long eventId, String seatIdsCsv, OffsetDateTime createdAt,
+    /**
+     * Inserts the hold row and its hold_seats rows (one JDBC batch). seat_ids_csv
+     * is still written for older readers but is no longer parsed by this service.
+     */
+    public long insertActive(Long attendeeId, Long eventId, List<Long> seatIds, OffsetDateTime createdAt,
             OffsetDateTime expiresAt) {
         final String sql = "INSERT INTO holds (attendee_id, event_id, seat_ids_csv, created_at, expires_at, status) " +
                 "VALUES (?,?,?,?,?,?)";
+        StringJoiner csv = new StringJoiner(",");
+        for (Long sid : seatIds)
+            csv.add(String.valueOf(sid));
         KeyHolder kh = new GeneratedKeyHolder();
         jdbcTemplate.update(con -> {
             PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
             ps.setLong(1, attendeeId);
             ps.setLong(2, eventId);
-            ps.setString(3, seatIdsCsv);
+            ps.setString(3, csv.toString());
             ps.setTimestamp(4, toTs(createdAt));
             ps.setTimestamp(5, toTs(expiresAt));
             ps.setString(6, HoldEntity.Status.ACTIVE.name());
             return ps;
         }, kh);
         Number key = kh.getKey();
-        return key == null ? -1L : key.longValue();
+        if (key == null)
+            return -1L;
+        long holdId = key.longValue();
+        jdbcTemplate.batchUpdate("INSERT INTO hold_seats (hold_id, seat_id, event_id) VALUES (?,?,?)",
+                seatIds, seatIds.size(), (ps, sid) -> {
+                    ps.setLong(1, holdId);
+                    ps.setLong(2, sid);
+                    ps.setLong(3, eventId);
+                });
+        return holdId;
+    }
+
+    public List<Long> findSeatIds(Long holdId) {
+        final String sql = "SELECT seat_id FROM hold_seats WHERE hold_id=? ORDER BY seat_id";
+        return jdbcTemplate.query(sql, (rs, rn) -> rs.getLong("seat_id"), holdId);
+    }
+
+    /**
+     * Returns holdId -> seat ids for the given holds (holds without seats are
+     * absent from the map).
+     */
+    public Map<Long, List<Long>> findSeatIdsByHoldIds(List<Long> holdIds) {
+        if (holdIds == null || holdIds.isEmpty())
+            return Map.of();
+        List<Object> args = new ArrayList<>();
+        String sql = "SELECT hold_id, seat_id FROM hold_seats WHERE hold_id IN " + InList.of(holdIds, args)
+                + " ORDER BY hold_id, seat_id";
+        Map<Long, List<Long>> out = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            out.computeIfAbsent(rs.getLong("hold_id"), k -> new ArrayList<>()).add(rs.getLong("seat_id"));
+        }, args.toArray());
+        return out;
+    }
+
+    /**
+     * Reverse lookup: the ACTIVE hold (if any) that currently owns a seat.
+     */
+    public Optional<HoldEntity> findActiveHoldBySeat(Long seatId) {
+        final String sql = "SELECT h.id, h.attendee_id, h.event_id, h.seat_ids_csv, h.created_at, h.expires_at, h.status "
+                + "FROM hold_seats hs JOIN holds h ON h.id = hs.hold_id "
+                + "WHERE hs.seat_id=? AND h.status=? ORDER BY h.id DESC LIMIT 1";
+        List<HoldEntity> list = jdbcTemplate.query(sql, (rs, rn) -> mapHold(rs), seatId,
+                HoldEntity.Status.ACTIVE.name());
+        return list.isEmpty() ? Optional.empty() : Optional.of(list.get(0));
+    }
+
+    /**
+     * Reverse lookup for many seats of one event: seatId -> ACTIVE hold id.
+     */
+    public Map<Long, Long> findActiveHoldIdsBySeats(Long eventId, List<Long> seatIds) {
+        if (seatIds == null || seatIds.isEmpty())
+            return Map.of();
+        List<Object> args = new ArrayList<>();
+        args.add(eventId);
+        String sql = "SELECT hs.seat_id, hs.hold_id FROM hold_seats hs JOIN holds h ON h.id = hs.hold_id "
+                + "WHERE hs.event_id=? AND hs.seat_id IN " + InList.of(seatIds, args) + " AND h.status=?";
+        args.add(HoldEntity.Status.ACTIVE.name());
+        Map<Long, Long> out = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            out.put(rs.getLong("seat_id"), rs.getLong("hold_id"));
+        }, args.toArray());
+        return out;
     }
 
     public Optional<HoldEntity> findById(Long id) {
         final String sql = "SELECT id, attendee_id, event_id, seat_ids_csv, created_at, expires_at, status FROM holds WHERE id=?";
-        List<HoldEntity> list = jdbcTemplate.query(sql, (rs, rn) -> {
-            HoldEntity e = new HoldEntity();
-            try {
-                var idCol = HoldEntity.class.getDeclaredField("id");
-                idCol.setAccessible(true);
-                idCol.set(e, rs.getLong("id"));
-            } catch (Exception ignore) {
-            }
-            e.setAttendeeId(rs.getLong("attendee_id"));
-            e.setEventId(rs.getLong("event_id"));
-            e.setSeatIdsCsv(rs.getString("seat_ids_csv"));
-            e.setCreatedAt(fromTs(rs.getTimestamp("created_at")));
-            e.setExpiresAt(fromTs(rs.getTimestamp("expires_at")));
-            e.setStatus(HoldEntity.Status.valueOf(rs.getString("status")));
-            return e;
-        }, id);
+        List<HoldEntity> list = jdbcTemplate.query(sql, (rs, rn) -> mapHold(rs), id);
         return list.isEmpty() ? Optional.empty() : Optional.of(list.get(0));
     }
 
@@ -86,47 +145,103 @@ public class HoldJdbcRepository {
     public List<HoldEntity> findExpiredActiveHolds(OffsetDateTime now) {
         final String sql = "SELECT id, attendee_id, event_id, seat_ids_csv, created_at, expires_at, status " +
                 "FROM holds WHERE status=? AND expires_at < ?";
-        return jdbcTemplate.query(sql, (rs, rn) -> {
-            HoldEntity e = new HoldEntity();
-            try {
-                var idCol = HoldEntity.class.getDeclaredField("id");
-                idCol.setAccessible(true);
-                idCol.set(e, rs.getLong("id"));
-            } catch (Exception ignore) {
-            }
-            e.setAttendeeId(rs.getLong("attendee_id"));
-            e.setEventId(rs.getLong("event_id"));
-            e.setSeatIdsCsv(rs.getString("seat_ids_csv"));
-            e.setCreatedAt(fromTs(rs.getTimestamp("created_at")));
-            e.setExpiresAt(fromTs(rs.getTimestamp("expires_at")));
-            e.setStatus(HoldEntity.Status.valueOf(rs.getString("status")));
-            return e;
-        }, HoldEntity.Status.ACTIVE.name(), toTs(now));
+        return jdbcTemplate.query(sql, (rs, rn) -> mapHold(rs), HoldEntity.Status.ACTIVE.name(), toTs(now));
+    }
+
+    /**
+     * Keyset page of expired ACTIVE holds with id > afterId, ordered by id.
+     * Lets the sweeper walk any number of expirations with bounded memory.
+     */
+    public List<HoldEntity> findExpiredActiveHoldsAfter(OffsetDateTime now, long afterId, int limit) {
+        final String sql = "SELECT id, attendee_id, event_id, seat_ids_csv, created_at, expires_at, status " +
+                "FROM holds WHERE status=? AND id > ? AND expires_at < ? ORDER BY id ASC LIMIT ?";
+        return jdbcTemplate.query(sql, (rs, rn) -> mapHold(rs),
+                HoldEntity.Status.ACTIVE.name(), afterId, toTs(now), Math.max(1, limit));
     }
 
+    /**
+     * Keyset page of all ACTIVE holds (expired or not) with id > afterId; used to
+     * rebuild the in-memory expiry wheel on startup.
+     */
+    public List<HoldEntity> findActiveHoldsAfter(long afterId, int limit) {
+        final String sql = "SELECT id, attendee_id, event_id, seat_ids_csv, created_at, expires_at, status " +
+                "FROM holds WHERE status=? AND id > ? ORDER BY id ASC LIMIT ?";
+        return jdbcTemplate.query(sql, (rs, rn) -> mapHold(rs),
+                HoldEntity.Status.ACTIVE.name(), afterId, Math.max(1, limit));
+    }
+
+    /**
+     * Re-reads and row-locks the holds among the given ids that are still ACTIVE
+     * (a hold may have been released since it was paged in).
+     */
+    public List<HoldEntity> lockActiveHolds(List<Long> holdIds) {
+        if (holdIds == null || holdIds.isEmpty())
+            return List.of();
+        List<Object> args = new ArrayList<>();
+        String sql = "SELECT id, attendee_id, event_id, seat_ids_csv, created_at, expires_at, status " +
+                "FROM holds WHERE id IN " + InList.of(holdIds, args) + " AND status=? FOR UPDATE";
+        args.add(HoldEntity.Status.ACTIVE.name());
+        return jdbcTemplate.query(sql, (rs, rn) -> mapHold(rs), args.toArray());
+    }
+
+    public int markExpired(List<Long> holdIds) {
+        if (holdIds == null || holdIds.isEmpty())
+            return 0;
+        List<Object> args = new ArrayList<>();
+        args.add(HoldEntity.Status.EXPIRED.name());
+        String sql = "UPDATE holds SET status=? WHERE id IN " + InList.of(holdIds, args) + " AND status=?";
+        args.add(HoldEntity.Status.ACTIVE.name());
+        return jdbcTemplate.update(sql, args.toArray());
+    }
+
+    /**
+     * AVAILABLE -> HELD; changed seats are appended to seat_outbox in the same
+     * transaction.
+     */
     public int updateSeatsToHeld(Long eventId, List<Long> seatIds) {
         if (seatIds == null || seatIds.isEmpty())
             return 0;
-        StringJoiner sj = new StringJoiner(",", "(", ")");
-        for (int i = 0; i < seatIds.size(); i++)
-            sj.add("?");
-        String sql = "UPDATE seats SET status='HELD' WHERE event_id=? AND id IN " + sj + " AND status='AVAILABLE'";
         List<Object> args = new ArrayList<>();
         args.add(eventId);
-        args.addAll(seatIds);
-        return jdbcTemplate.update(sql, args.toArray());
+        String sql = "UPDATE seats SET status='HELD' WHERE event_id=? AND id IN " + InList.of(seatIds, args)
+                + " AND status='AVAILABLE'";
+        int updated = jdbcTemplate.update(sql, args.toArray());
+        if (updated > 0)
+            outbox.appendStatus(eventId, seatIds, "HELD");
+        return updated;
     }
 
+    /**
+     * HELD -> AVAILABLE; changed seats are appended to seat_outbox in the same
+     * transaction.
+     */
     public int updateSeatsToAvailable(Long eventId, List<Long> seatIds) {
         if (seatIds == null || seatIds.isEmpty())
             return 0;
-        StringJoiner sj = new StringJoiner(",", "(", ")");
-        for (int i = 0; i < seatIds.size(); i++)
-            sj.add("?");
-        String sql = "UPDATE seats SET status='AVAILABLE' WHERE event_id=? AND id IN " + sj + " AND status='HELD'";
         List<Object> args = new ArrayList<>();
         args.add(eventId);
-        args.addAll(seatIds);
-        return jdbcTemplate.update(sql, args.toArray());
+        String sql = "UPDATE seats SET status='AVAILABLE' WHERE event_id=? AND id IN " + InList.of(seatIds, args)
+                + " AND status='HELD'";
+        int updated = jdbcTemplate.update(sql, args.toArray());
+        if (updated > 0)
+            outbox.appendStatus(eventId, seatIds, "AVAILABLE");
+        return updated;
+    }
+
+    private HoldEntity mapHold(ResultSet rs) throws SQLException {
+        HoldEntity e = new HoldEntity();
+        try {
+            var idCol = HoldEntity.class.getDeclaredField("id");
+            idCol.setAccessible(true);
+            idCol.set(e, rs.getLong("id"));
+        } catch (Exception ignore) {
+        }
+        e.setAttendeeId(rs.getLong("attendee_id"));
+        e.setEventId(rs.getLong("event_id"));
+        e.setSeatIdsCsv(rs.getString("seat_ids_csv"));
+        e.setCreatedAt(fromTs(rs.getTimestamp("created_at")));
+        e.setExpiresAt(fromTs(rs.getTimestamp("expires_at")));
+        e.setStatus(HoldEntity.Status.valueOf(rs.getString("status")));
+        return e;
     }
 }
@@ -2,13 +2,19 @@ package com.eventseat.catalog.repository;
 
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
 /**
  * Simple idempotency store for bulk inventory import.
  * Keyed by 'Idempotency-Key' header. Caches a responseJson so replays return
- * the same report.
+ * the same report. Rows are partitioned by day bucket (see DailyPartitions);
+ * a key is looked up across buckets and the oldest row wins.
+ *
+ * An import claims its key by inserting the row before any work, with an
+ * empty request_hash and no response; the row is completed with both when
+ * the import finishes and deleted when it fails.
  */
 @Repository
 public class IdempotencyImportJdbcRepository {
@@ -21,18 +27,21 @@ public class IdempotencyImportJdbcRepository {
 
     public static class ImportCacheRow {
         public String key;
+        public int bucket;
         public String requestHash;
         public String responseJson;
         public OffsetDateTime createdAt;
     }
 
     public ImportCacheRow findByKey(String key) {
-        final String sql = "SELECT `key`, request_hash, response_json, created_at FROM idempotency_imports WHERE `key`=?";
+        final String sql = "SELECT `key`, bucket, request_hash, response_json, created_at FROM idempotency_imports WHERE `key`=? "
+                + "ORDER BY bucket ASC LIMIT 1";
         return jdbcTemplate.query(sql, rs -> {
             if (!rs.next())
                 return null;
             ImportCacheRow row = new ImportCacheRow();
             row.key = rs.getString("key");
+            row.bucket = rs.getInt("bucket");
             row.requestHash = rs.getString("request_hash");
             row.responseJson = rs.getString("response_json");
             var ts = rs.getTimestamp("created_at");
@@ -41,14 +50,64 @@ public class IdempotencyImportJdbcRepository {
         }, key);
     }
 
-    public int insert(String key, String requestHash, String responseJson) {
-        final String sql = "INSERT INTO idempotency_imports (`key`, request_hash, response_json, created_at) VALUES (?,?,?,?)";
-        return jdbcTemplate.update(sql, key, requestHash, responseJson,
-                java.sql.Timestamp.from(OffsetDateTime.now().toInstant()));
+    /**
+     * Inserts the in-progress row for key; false when the key already has a
+     * row in this bucket or, like IdempotencyKeyJdbcRepository.tryInsert in
+     * order-service, in a neighbouring one (a retry across UTC midnight, or a
+     * twin on a skewed clock). The neighbour check runs after the insert and
+     * both are autocommitted, so of two concurrent twins the later check always
+     * sees the other row: at most one wins, and if both lose their rows are
+     * removed and a retry claims the key. findByKey thus never has two rows to
+     * choose between.
+     */
+    public boolean tryClaim(String key, int bucket) {
+        final String sql = "INSERT INTO idempotency_imports (`key`, bucket, request_hash, response_json, created_at) VALUES (?,?,'',NULL,?)";
+        try {
+            jdbcTemplate.update(sql, key, bucket, java.sql.Timestamp.from(OffsetDateTime.now().toInstant()));
+        } catch (DuplicateKeyException ex) {
+            return false;
+        }
+        Integer neighbours = jdbcTemplate.queryForObject(
+                "SELECT COUNT(1) FROM idempotency_imports WHERE `key`=? AND bucket IN (?,?)", Integer.class, key,
+                bucket - 1, bucket + 1);
+        if (neighbours != null && neighbours > 0) {
+            jdbcTemplate.update("DELETE FROM idempotency_imports WHERE `key`=? AND bucket=?", key, bucket);
+            return false;
+        }
+        return true;
     }
 
-    public int updateResponse(String key, String responseJson) {
-        final String sql = "UPDATE idempotency_imports SET response_json=? WHERE `key`=?";
-        return jdbcTemplate.update(sql, responseJson, key);
+    /**
+     * Takes over a row last seen with the given created_at (an abandoned claim
+     * or an unreadable report), resetting it to in progress; false when
+     * another import changed the row first.
+     */
+    public boolean reclaim(String key, int bucket, OffsetDateTime seenCreatedAt) {
+        final String sql = "UPDATE idempotency_imports SET request_hash='', response_json=NULL, created_at=? "
+                + "WHERE `key`=? AND bucket=? AND created_at=?";
+        return jdbcTemplate.update(sql, java.sql.Timestamp.from(OffsetDateTime.now().toInstant()), key, bucket,
+                java.sql.Timestamp.from(seenCreatedAt.toInstant())) == 1;
+    }
+
+    public int complete(String key, int bucket, String requestHash, String responseJson) {
+        final String sql = "UPDATE idempotency_imports SET request_hash=?, response_json=? WHERE `key`=? AND bucket=?";
+        return jdbcTemplate.update(sql, requestHash, responseJson, key, bucket);
+    }
+
+    /**
+     * Drops an in-progress claim so the key can be retried.
+     */
+    public int release(String key, int bucket) {
+        final String sql = "DELETE FROM idempotency_imports WHERE `key`=? AND bucket=? AND response_json IS NULL";
+        return jdbcTemplate.update(sql, key, bucket);
+    }
+
+    /**
+     * Deletes up to limit imports created before cutoff; only used when the
+     * table could not be partitioned.
+     */
+    public int deleteCreatedBefore(OffsetDateTime cutoff, int limit) {
+        final String sql = "DELETE FROM idempotency_imports WHERE created_at < ? LIMIT ?";
+        return jdbcTemplate.update(sql, java.sql.Timestamp.from(cutoff.toInstant()), limit);
     }
 }
@@ -0,0 +1,82 @@
+package com.eventseat.catalog.repository;
+
+import com.eventseat.catalog.web.dto.ImportDtos.ImportRowResult;
+import java.sql.Types;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Per-row results of an inventory import, keyed by (import_key, row_no).
+ * The report cached in idempotency_imports only carries the totals and the
+ * first failures; full row results are paged from here. Rows share the day
+ * bucket of their import so both tables expire together.
+ */
+@Repository
+public class ImportRowResultJdbcRepository {
+
+    // default message of successful rows; implied and not stored
+    private static final String SUCCESS_MESSAGE = "upserted";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ImportRowResultJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public int deleteByKey(String importKey) {
+        return jdbcTemplate.update("DELETE FROM import_row_results WHERE import_key=?", importKey);
+    }
+
+    public void batchInsert(String importKey, int bucket, List<ImportRowResult> results) {
+        if (results.isEmpty())
+            return;
+        final String sql = "INSERT INTO import_row_results (import_key, bucket, row_no, success, seat_id, message) "
+                + "VALUES (?,?,?,?,?,?) "
+                + "ON DUPLICATE KEY UPDATE success=VALUES(success), seat_id=VALUES(seat_id), message=VALUES(message)";
+        jdbcTemplate.batchUpdate(sql, results, results.size(), (ps, rr) -> {
+            ps.setString(1, importKey);
+            ps.setInt(2, bucket);
+            ps.setInt(3, rr.getRowNumber());
+            ps.setBoolean(4, rr.isSuccess());
+            if (rr.getSeatId() == null) {
+                ps.setNull(5, Types.BIGINT);
+            } else {
+                ps.setLong(5, rr.getSeatId());
+            }
+            ps.setString(6, rr.isSuccess() && SUCCESS_MESSAGE.equals(rr.getMessage()) ? null
+                    : truncate(rr.getMessage(), 200));
+        });
+    }
+
+    /**
+     * Keyset page of row results with row_no > afterRow, in row order.
+     */
+    public List<ImportRowResult> findPage(String importKey, int afterRow, int limit, boolean failedOnly) {
+        String sql = "SELECT row_no, success, seat_id, message FROM import_row_results "
+                + "WHERE import_key=? AND row_no>?" + (failedOnly ? " AND success=0" : "")
+                + " ORDER BY row_no ASC LIMIT ?";
+        return jdbcTemplate.query(sql, (rs, i) -> {
+            ImportRowResult rr = new ImportRowResult();
+            rr.setRowNumber(rs.getInt("row_no"));
+            rr.setSuccess(rs.getBoolean("success"));
+            long seatId = rs.getLong("seat_id");
+            rr.setSeatId(rs.wasNull() ? null : seatId);
+            String message = rs.getString("message");
+            rr.setMessage(message == null && rr.isSuccess() ? SUCCESS_MESSAGE : message);
+            return rr;
+        }, importKey, afterRow, limit);
+    }
+
+    /**
+     * Deletes up to limit rows of imports created before cutoff; only used
+     * when the table could not be partitioned.
+     */
+    public int deleteBucketsBefore(int cutoffBucket, int limit) {
+        return jdbcTemplate.update("DELETE FROM import_row_results WHERE bucket < ? LIMIT ?", cutoffBucket, limit);
+    }
+
+    private String truncate(String s, int max) {
+        return s == null || s.length() <= max ? s : s.substring(0, max);
+    }
+}
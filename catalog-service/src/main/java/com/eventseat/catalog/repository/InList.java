@@ -0,0 +1,68 @@
+package com.eventseat.catalog.repository;
+
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Builds IN-list fragments whose SQL text depends only on a size bucket, so
+ * the driver and server prepared-statement caches see a small fixed set of
+ * statements instead of one per list length.
+ *
+ * Lists are padded to the next power of two (1, 2, 4 ... MAX_BUCKET) by
+ * repeating the last value, which leaves IN semantics and update counts
+ * unchanged. Longer lists of ids are passed as one JSON array parameter and
+ * expanded with JSON_TABLE.
+ */
+public final class InList {
+
+    public static final int MAX_BUCKET = 1024;
+
+    private static final String[] PLACEHOLDERS = new String[Integer.numberOfTrailingZeros(MAX_BUCKET) + 1];
+
+    static {
+        for (int i = 0; i < PLACEHOLDERS.length; i++) {
+            StringJoiner sj = new StringJoiner(",", "(", ")");
+            for (int j = 0; j < (1 << i); j++)
+                sj.add("?");
+            PLACEHOLDERS[i] = sj.toString();
+        }
+    }
+
+    private static final String JSON_IDS = "(SELECT jt.v FROM JSON_TABLE(?, '$[*]' COLUMNS (v BIGINT PATH '$')) jt)";
+
+    private InList() {
+    }
+
+    /** Smallest power of two >= n (at least 1). */
+    public static int bucket(int n) {
+        return n <= 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+    }
+
+    /**
+     * Returns the "(?,?,...)" fragment for values and appends the matching
+     * (padded) arguments to args. values must not be empty.
+     */
+    public static String of(List<?> values, List<Object> args) {
+        int n = values.size();
+        if (n > MAX_BUCKET && values.stream().allMatch(v -> v instanceof Long)) {
+            StringJoiner json = new StringJoiner(",", "[", "]");
+            for (Object v : values)
+                json.add(v.toString());
+            args.add(json.toString());
+            return JSON_IDS;
+        }
+        int size = bucket(n);
+        args.addAll(values);
+        Object last = values.get(n - 1);
+        for (int i = n; i < size; i++)
+            args.add(last);
+        return size <= MAX_BUCKET ? PLACEHOLDERS[Integer.numberOfTrailingZeros(size)] : placeholders(size);
+    }
+
+    private static String placeholders(int n) {
+        StringJoiner sj = new StringJoiner(",", "(", ")");
+        for (int i = 0; i < n; i++)
+            sj.add("?");
+        return sj.toString();
+    }
+}
@@ -0,0 +1,102 @@
+package com.eventseat.catalog.repository;
+
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Materialized per-event seat counters (event_inventory_summary) used by event
+ * search instead of per-row COUNT/EXISTS subqueries over seats.
+ *
+ * Status moves (hold, release, expiry, sale) apply deltas after their
+ * transaction commits, buffered per event (InventorySummaryDeltas); writes that
+ * can change prices or the seat set (seat CRUD, import) recompute the event
+ * from seats through InventorySummaryDeltas.recompute, which drops the event's
+ * buffered deltas first. InventorySummaryRebuildJob periodically recomputes
+ * every event to repair drift.
+ */
+@Repository
+public class InventorySummaryJdbcRepository {
+
+    // Aggregates one event's seats; always yields exactly one row (zeros when the
+    // event has no seats)
+    private static final String AGGREGATE_ONE = "SELECT ? AS event_id, " +
+            "COALESCE(SUM(status='AVAILABLE'),0) AS available_count, " +
+            "COALESCE(SUM(status='HELD'),0) AS held_count, " +
+            "COALESCE(SUM(status='SOLD'),0) AS sold_count, " +
+            "MIN(base_price) AS min_price, MAX(base_price) AS max_price " +
+            "FROM seats WHERE event_id=?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public InventorySummaryJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Adds the given deltas to an event's counters. Falls back to a full
+     * recompute when the event has no summary row yet.
+     */
+    public void applyDelta(Long eventId, long available, long held, long sold) {
+        if (eventId == null || (available == 0 && held == 0 && sold == 0))
+            return;
+        final String sql = "UPDATE event_inventory_summary SET " +
+                "available_count = GREATEST(0, available_count + ?), " +
+                "held_count = GREATEST(0, held_count + ?), " +
+                "sold_count = GREATEST(0, sold_count + ?), " +
+                "updated_at = CURRENT_TIMESTAMP(6) WHERE event_id=?";
+        int updated = jdbcTemplate.update(sql, available, held, sold, eventId);
+        if (updated == 0) {
+            recompute(eventId);
+        }
+    }
+
+    /**
+     * Recomputes one event's counters and price range from the seats table.
+     */
+    public void recompute(Long eventId) {
+        if (eventId == null)
+            return;
+        final String sql = "INSERT INTO event_inventory_summary " +
+                "(event_id, available_count, held_count, sold_count, min_price, max_price, updated_at) " +
+                "SELECT src.event_id, src.available_count, src.held_count, src.sold_count, src.min_price, src.max_price, "
+                +
+                "CURRENT_TIMESTAMP(6) FROM (" + AGGREGATE_ONE + ") src " +
+                "ON DUPLICATE KEY UPDATE available_count=src.available_count, held_count=src.held_count, " +
+                "sold_count=src.sold_count, min_price=src.min_price, max_price=src.max_price, " +
+                "updated_at=CURRENT_TIMESTAMP(6)";
+        jdbcTemplate.update(sql, eventId, eventId);
+    }
+
+    /**
+     * Event ids after the given id, ascending; used to rebuild in small steps so
+     * no statement scans (and share-locks) the whole seats table.
+     */
+    public List<Long> findEventIdsAfter(long afterId, int limit) {
+        final String sql = "SELECT id FROM events WHERE id > ? ORDER BY id ASC LIMIT ?";
+        return jdbcTemplate.query(sql, (rs, rn) -> rs.getLong("id"), afterId, Math.max(1, limit));
+    }
+
+    /**
+     * Creates summary rows for events that do not have one yet. Returns the
+     * number of events seeded.
+     */
+    public int seedMissing() {
+        List<Long> missing = jdbcTemplate.query(
+                "SELECT e.id FROM events e LEFT JOIN event_inventory_summary s ON s.event_id = e.id " +
+                        "WHERE s.event_id IS NULL",
+                (rs, rn) -> rs.getLong("id"));
+        for (Long eventId : missing) {
+            recompute(eventId);
+        }
+        return missing.size();
+    }
+
+    /**
+     * Removes summary rows whose event no longer exists.
+     */
+    public int deleteOrphans() {
+        return jdbcTemplate.update("DELETE s FROM event_inventory_summary s " +
+                "LEFT JOIN events e ON e.id = s.event_id WHERE e.id IS NULL");
+    }
+}
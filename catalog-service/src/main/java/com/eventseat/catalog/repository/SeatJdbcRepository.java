@@ -2,6 +2,7 @@ package com.eventseat.catalog.repository;
 
 import com.eventseat.catalog.web.dto.SeatDto;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
@@ -9,13 +10,14 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.ArrayList;
-import java.util.StringJoiner;
 
 @Repository
 public class SeatJdbcRepository {
@@ -121,6 +123,39 @@ public class SeatJdbcRepository {
         }, eventId, safeSize, offset);
     }
 
+    /**
+     * Keyset page ordered by id DESC: seats with id < beforeId (all when null).
+     * Returns up to limit rows; callers ask for one extra row to detect a next
+     * page.
+     */
+    public List<SeatDto> findPageBefore(Long beforeId, Long eventId, int limit) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, event_id, section, row_label, seat_number, base_price, currency, status FROM seats WHERE 1=1");
+        List<Object> args = new ArrayList<>();
+        if (eventId != null) {
+            sql.append(" AND event_id=?");
+            args.add(eventId);
+        }
+        if (beforeId != null) {
+            sql.append(" AND id < ?");
+            args.add(beforeId);
+        }
+        sql.append(" ORDER BY id DESC LIMIT ?");
+        args.add(Math.max(1, limit));
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> {
+            SeatDto dto = new SeatDto();
+            dto.setId(rs.getLong("id"));
+            dto.setEventId(rs.getLong("event_id"));
+            dto.setSection(rs.getString("section"));
+            dto.setRowLabel(rs.getString("row_label"));
+            dto.setSeatNumber(rs.getString("seat_number"));
+            dto.setBasePrice(rs.getBigDecimal("base_price"));
+            dto.setCurrency(rs.getString("currency"));
+            dto.setStatus(rs.getString("status"));
+            return dto;
+        }, args.toArray());
+    }
+
     public int delete(Long id) {
         final String sql = "DELETE FROM seats WHERE id=?";
         return jdbcTemplate.update(sql, id);
@@ -141,13 +176,9 @@ public class SeatJdbcRepository {
     public Map<Long, String> findStatusesForEventAndIds(Long eventId, List<Long> seatIds) {
         if (seatIds == null || seatIds.isEmpty())
             return Map.of();
-        StringJoiner sj = new StringJoiner(",", "(", ")");
-        for (int i = 0; i < seatIds.size(); i++)
-            sj.add("?");
-        String sql = "SELECT id, status FROM seats WHERE event_id=? AND id IN " + sj;
         List<Object> args = new ArrayList<>();
         args.add(eventId);
-        args.addAll(seatIds);
+        String sql = "SELECT id, status FROM seats WHERE event_id=? AND id IN " + InList.of(seatIds, args);
         Map<Long, String> out = new HashMap<>();
         jdbcTemplate.query(sql, args.toArray(), rs -> {
             out.put(rs.getLong("id"), rs.getString("status"));
@@ -155,17 +186,268 @@ public class SeatJdbcRepository {
         return out;
     }
 
+    @FunctionalInterface
+    public interface SeatStatusCallback {
+        void accept(long seatId, String status);
+    }
+
+    /**
+     * Streams (id, status) of every seat of an event in ascending id order without
+     * materializing DTOs. Used to build the in-memory availability index.
+     */
+    public void forEachIdAndStatusByEventId(Long eventId, SeatStatusCallback callback) {
+        final String sql = "SELECT id, status FROM seats WHERE event_id=? ORDER BY id ASC";
+        jdbcTemplate.query(sql, rs -> {
+            callback.accept(rs.getLong("id"), rs.getString("status"));
+        }, eventId);
+    }
+
+    /** Unique index on (event_id, natural_key); see SeatNaturalKeySchemaInitializer. */
+    public static final String NATURAL_KEY_INDEX = "uq_seats_event_natural_key";
+
+    private volatile boolean naturalKeyUnique;
+
+    /**
+     * Natural key (section, row, seat) exactly as the generated seats.natural_key
+     * column computes it: nulls become empty, parts joined by U+001F. The column
+     * collation compares it case-insensitively.
+     */
+    public static String naturalKey(String section, String rowLabel, String seatNumber) {
+        return (section == null ? "" : section) + '\u001F'
+                + (rowLabel == null ? "" : rowLabel) + '\u001F'
+                + (seatNumber == null ? "" : seatNumber);
+    }
+
+    /**
+     * Whether the unique (event_id, natural_key) index exists. It is skipped at
+     * startup when legacy duplicate seats are present; a positive answer is
+     * remembered.
+     */
+    public boolean isNaturalKeyUnique() {
+        if (!naturalKeyUnique) {
+            Integer n = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(1) FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = DATABASE() " +
+                            "AND TABLE_NAME = 'seats' AND INDEX_NAME = ? AND NON_UNIQUE = 0",
+                    Integer.class, NATURAL_KEY_INDEX);
+            naturalKeyUnique = n != null && n > 0;
+        }
+        return naturalKeyUnique;
+    }
+
+    /**
+     * Loads lower-cased naturalKey -> seat id for every seat of an event in one
+     * query. The first seat wins if legacy duplicates exist.
+     */
+    public Map<String, Long> findIdsByNaturalKey(Long eventId) {
+        final String sql = "SELECT id, natural_key FROM seats WHERE event_id=? ORDER BY id ASC";
+        Map<String, Long> out = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            out.putIfAbsent(rs.getString("natural_key").toLowerCase(Locale.ROOT), rs.getLong("id"));
+        }, eventId);
+        return out;
+    }
+
+    /**
+     * Resolves ids for the given seats of an event with one indexed join.
+     * Keys of the returned map are the lower-cased natural keys built from the
+     * given seats, not the stored ones: the requested keys are joined as
+     * parameters, so the column's (case- and accent-insensitive) collation
+     * decides the match and a stored "Café" still resolves the key "cafe".
+     */
+    public Map<String, Long> findIdsByNaturalKeys(Long eventId, List<SeatDto> seats) {
+        if (seats.isEmpty())
+            return Map.of();
+        List<Object> args = new ArrayList<>(InList.bucket(seats.size()) + 1);
+        for (SeatDto dto : seats) {
+            args.add(naturalKey(dto.getSection(), dto.getRowLabel(), dto.getSeatNumber()));
+        }
+        // Pad like InList so the statement text only depends on the size bucket
+        int size = InList.bucket(seats.size());
+        Object last = args.get(args.size() - 1);
+        while (args.size() < size)
+            args.add(last);
+        args.add(eventId);
+        String sql = "SELECT k.requested, s.id FROM (" + keyRows(size) + ") k "
+                + "JOIN seats s ON s.natural_key = k.requested WHERE s.event_id=?";
+        Map<String, Long> out = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            out.put(rs.getString("requested").toLowerCase(Locale.ROOT), rs.getLong("id"));
+        }, args.toArray());
+        return out;
+    }
+
+    // "SELECT ? AS requested UNION ALL SELECT ? ..." with n rows
+    private static String keyRows(int n) {
+        StringBuilder sb = new StringBuilder(n * 18 + 16).append("SELECT ? AS requested");
+        for (int i = 1; i < n; i++)
+            sb.append(" UNION ALL SELECT ?");
+        return sb.toString();
+    }
+
+    /**
+     * Inserts or updates seats by (event_id, natural_key) with one batched
+     * INSERT ... ON DUPLICATE KEY UPDATE. Requires the unique natural-key index.
+     * Existing seats get the new price/currency/status.
+     */
+    public void batchUpsertByNaturalKey(List<SeatDto> seats) {
+        if (seats.isEmpty())
+            return;
+        final String sql = "INSERT INTO seats (event_id, section, row_label, seat_number, base_price, currency, status) "
+                +
+                "VALUES (?,?,?,?,?,?,?) " +
+                "ON DUPLICATE KEY UPDATE base_price=VALUES(base_price), currency=VALUES(currency), status=VALUES(status)";
+        jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                SeatDto dto = seats.get(i);
+                ps.setLong(1, dto.getEventId());
+                ps.setString(2, dto.getSection());
+                ps.setString(3, dto.getRowLabel());
+                ps.setString(4, dto.getSeatNumber());
+                ps.setBigDecimal(5, dto.getBasePrice() == null ? BigDecimal.ZERO : dto.getBasePrice());
+                ps.setString(6, dto.getCurrency());
+                ps.setString(7, dto.getStatus());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return seats.size();
+            }
+        });
+    }
+
+    /**
+     * Inserts seats with one JDBC batch and returns their generated ids in input
+     * order.
+     */
+    public List<Long> batchInsert(List<SeatDto> seats) {
+        if (seats.isEmpty())
+            return List.of();
+        final String sql = "INSERT INTO seats (event_id, section, row_label, seat_number, base_price, currency, status) "
+                +
+                "VALUES (?,?,?,?,?,?,?)";
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        SeatDto dto = seats.get(i);
+                        ps.setLong(1, dto.getEventId());
+                        ps.setString(2, dto.getSection());
+                        ps.setString(3, dto.getRowLabel());
+                        ps.setString(4, dto.getSeatNumber());
+                        ps.setBigDecimal(5, dto.getBasePrice() == null ? BigDecimal.ZERO : dto.getBasePrice());
+                        ps.setString(6, dto.getCurrency());
+                        ps.setString(7, dto.getStatus());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return seats.size();
+                    }
+                }, keyHolder);
+        List<Long> ids = new ArrayList<>(seats.size());
+        for (Map<String, Object> keys : keyHolder.getKeyList()) {
+            Object id = keys.values().iterator().next();
+            ids.add(((Number) id).longValue());
+        }
+        return ids;
+    }
+
+    /**
+     * Updates price/currency/status of existing seats (by id) with one JDBC batch.
+     */
+    public void batchUpdateImported(List<SeatDto> seats) {
+        if (seats.isEmpty())
+            return;
+        final String sql = "UPDATE seats SET base_price=?, currency=?, status=? WHERE id=?";
+        List<Object[]> args = new ArrayList<>(seats.size());
+        for (SeatDto dto : seats) {
+            args.add(new Object[] { dto.getBasePrice(), dto.getCurrency(), dto.getStatus(), dto.getId() });
+        }
+        jdbcTemplate.batchUpdate(sql, args);
+    }
+
+    @FunctionalInterface
+    public interface SeatSnapshotCallback {
+        void accept(long seatId, String naturalKey, BigDecimal basePrice, String currency);
+    }
+
+    /**
+     * Streams (id, natural_key, base_price, currency) of every seat of an event
+     * in ascending id order. Used by delta imports to diff against the file.
+     */
+    public void forEachSnapshotByEventId(Long eventId, SeatSnapshotCallback callback) {
+        final String sql = "SELECT id, natural_key, base_price, currency FROM seats WHERE event_id=? ORDER BY id ASC";
+        jdbcTemplate.query(sql, rs -> {
+            callback.accept(rs.getLong("id"), rs.getString("natural_key"), rs.getBigDecimal("base_price"),
+                    rs.getString("currency"));
+        }, eventId);
+    }
+
+    /**
+     * Like batchUpsertByNaturalKey, but existing seats only get the new
+     * price/currency; their status (HELD/SOLD) is left alone. New seats are
+     * inserted with the given status. Requires the unique natural-key index.
+     */
+    public void batchUpsertPriceByNaturalKey(List<SeatDto> seats) {
+        if (seats.isEmpty())
+            return;
+        final String sql = "INSERT INTO seats (event_id, section, row_label, seat_number, base_price, currency, status) "
+                +
+                "VALUES (?,?,?,?,?,?,?) " +
+                "ON DUPLICATE KEY UPDATE base_price=VALUES(base_price), currency=VALUES(currency)";
+        List<Object[]> args = new ArrayList<>(seats.size());
+        for (SeatDto dto : seats) {
+            args.add(new Object[] { dto.getEventId(), dto.getSection(), dto.getRowLabel(), dto.getSeatNumber(),
+                    dto.getBasePrice() == null ? BigDecimal.ZERO : dto.getBasePrice(), dto.getCurrency(),
+                    dto.getStatus() });
+        }
+        jdbcTemplate.batchUpdate(sql, args);
+    }
+
+    /**
+     * Updates price/currency of existing seats (by id) with one JDBC batch,
+     * leaving status untouched.
+     */
+    public void batchUpdatePrice(List<SeatDto> seats) {
+        if (seats.isEmpty())
+            return;
+        final String sql = "UPDATE seats SET base_price=?, currency=? WHERE id=?";
+        List<Object[]> args = new ArrayList<>(seats.size());
+        for (SeatDto dto : seats) {
+            args.add(new Object[] { dto.getBasePrice(), dto.getCurrency(), dto.getId() });
+        }
+        jdbcTemplate.batchUpdate(sql, args);
+    }
+
+    /**
+     * Deletes the given seats of an event that are still AVAILABLE; HELD and SOLD
+     * seats are kept. Returns the number of seats deleted.
+     */
+    public int deleteAvailableByIds(Long eventId, List<Long> seatIds) {
+        if (seatIds == null || seatIds.isEmpty())
+            return 0;
+        List<Object> args = new ArrayList<>(InList.bucket(seatIds.size()) + 1);
+        args.add(eventId);
+        String sql = "DELETE FROM seats WHERE event_id=? AND status='AVAILABLE' AND id IN " + InList.of(seatIds, args);
+        return jdbcTemplate.update(sql, args.toArray());
+    }
+
     public Long findIdByNaturalKey(Long eventId, String section, String rowLabel, String seatNumber) {
-        final String sql = "SELECT id FROM seats WHERE event_id=? AND " +
-                "COALESCE(section,'') = COALESCE(?, '') AND COALESCE(row_label,'') = COALESCE(?, '') AND COALESCE(seat_number,'') = COALESCE(?, '') LIMIT 1";
+        final String sql = "SELECT id FROM seats WHERE event_id=? AND natural_key=? ORDER BY id LIMIT 1";
         List<Long> ids = jdbcTemplate.query(sql, (rs, rn) -> rs.getLong("id"),
-                eventId, section, rowLabel, seatNumber);
+                eventId, naturalKey(section, rowLabel, seatNumber));
         return ids.isEmpty() ? null : ids.get(0);
     }
 
+    /**
+     * Single-seat upsert. With the unique natural-key index this is one atomic
+     * statement (LAST_INSERT_ID(id) yields the id of an updated row too);
+     * otherwise a lookup followed by INSERT or UPDATE.
+     */
     public Long upsertByNaturalKey(Long eventId, String section, String rowLabel, String seatNumber,
             java.math.BigDecimal basePrice, String currency) {
-        Long existingId = findIdByNaturalKey(eventId, section, rowLabel, seatNumber);
         com.eventseat.catalog.web.dto.SeatDto dto = new com.eventseat.catalog.web.dto.SeatDto();
         dto.setEventId(eventId);
         dto.setSection(section);
@@ -174,6 +456,27 @@ public class SeatJdbcRepository {
         dto.setBasePrice(basePrice);
         dto.setCurrency(currency);
         dto.setStatus("AVAILABLE");
+        if (isNaturalKeyUnique()) {
+            final String sql = "INSERT INTO seats (event_id, section, row_label, seat_number, base_price, currency, status) "
+                    +
+                    "VALUES (?,?,?,?,?,?,?) ON DUPLICATE KEY UPDATE id=LAST_INSERT_ID(id), " +
+                    "base_price=VALUES(base_price), currency=VALUES(currency), status=VALUES(status)";
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+                ps.setLong(1, eventId);
+                ps.setString(2, section);
+                ps.setString(3, rowLabel);
+                ps.setString(4, seatNumber);
+                ps.setBigDecimal(5, basePrice == null ? BigDecimal.ZERO : basePrice);
+                ps.setString(6, currency);
+                ps.setString(7, "AVAILABLE");
+                return ps;
+            }, keyHolder);
+            Number key = keyHolder.getKey();
+            return key != null ? key.longValue() : findIdByNaturalKey(eventId, section, rowLabel, seatNumber);
+        }
+        Long existingId = findIdByNaturalKey(eventId, section, rowLabel, seatNumber);
         if (existingId == null) {
             com.eventseat.catalog.web.dto.SeatDto saved = save(dto);
             return saved.getId();
@@ -0,0 +1,103 @@
+package com.eventseat.catalog.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Transactional outbox of seat status changes (seat_outbox). Writers append in
+ * the same transaction as the seats UPDATE, from the rows that now carry the
+ * new status; SeatOutboxRelay reads them back in id order. order-service
+ * appends SOLD changes to the same table.
+ */
+@Repository
+public class SeatOutboxJdbcRepository {
+
+    public static final String SOURCE = "catalog";
+
+    /**
+     * One seat status change.
+     */
+    public record SeatChange(long id, Long eventId, Long seatId, String status, String source,
+            OffsetDateTime createdAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SeatOutboxJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Records the given seats of an event that currently have status; call
+     * right after the UPDATE that set it, inside the same transaction.
+     */
+    public int appendStatus(Long eventId, List<Long> seatIds, String status) {
+        if (seatIds == null || seatIds.isEmpty())
+            return 0;
+        List<Object> args = new ArrayList<>();
+        args.add(SOURCE);
+        args.add(eventId);
+        String sql = "INSERT INTO seat_outbox (event_id, seat_id, status, source, created_at) "
+                + "SELECT s.event_id, s.id, s.status, ?, NOW(3) FROM seats s WHERE s.event_id=? AND s.id IN "
+                + InList.of(seatIds, args) + " AND s.status=?";
+        args.add(status);
+        return jdbcTemplate.update(sql, args.toArray());
+    }
+
+    /**
+     * Changes with id &gt; afterId in id order.
+     */
+    public List<SeatChange> findAfter(long afterId, int limit) {
+        final String sql = "SELECT id, event_id, seat_id, status, source, created_at "
+                + "FROM seat_outbox WHERE id > ? ORDER BY id ASC LIMIT ?";
+        return jdbcTemplate.query(sql, (rs, i) -> mapChange(rs), afterId, limit);
+    }
+
+    /**
+     * The changes among ids that exist (i.e. have committed), in id order.
+     */
+    public List<SeatChange> findByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty())
+            return List.of();
+        List<Object> args = new ArrayList<>();
+        String sql = "SELECT id, event_id, seat_id, status, source, created_at FROM seat_outbox WHERE id IN "
+                + InList.of(ids, args) + " ORDER BY id ASC";
+        return jdbcTemplate.query(sql, (rs, i) -> mapChange(rs), args.toArray());
+    }
+
+    private SeatChange mapChange(ResultSet rs) throws SQLException {
+        Timestamp ts = rs.getTimestamp("created_at");
+        return new SeatChange(rs.getLong("id"), rs.getLong("event_id"), rs.getLong("seat_id"),
+                rs.getString("status"), rs.getString("source"),
+                ts == null ? null : ts.toInstant().atOffset(ZoneOffset.UTC));
+    }
+
+    /**
+     * Oldest id still in the outbox; Long.MAX_VALUE when empty.
+     */
+    public long minId() {
+        Long id = jdbcTemplate.queryForObject("SELECT MIN(id) FROM seat_outbox", Long.class);
+        return id == null ? Long.MAX_VALUE : id;
+    }
+
+    public long maxId() {
+        Long id = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM seat_outbox", Long.class);
+        return id == null ? 0L : id;
+    }
+
+    /**
+     * Deletes up to limit changes older than minutes (by database clock, like
+     * created_at); returns the number deleted.
+     */
+    public int deleteOlderThan(long minutes, int limit) {
+        final String sql = "DELETE FROM seat_outbox WHERE created_at < NOW(3) - INTERVAL ? MINUTE LIMIT ?";
+        return jdbcTemplate.update(sql, minutes, limit);
+    }
+}
@@ -1,6 +1,9 @@
 package com.eventseat.catalog.repository;
 
+import com.eventseat.catalog.config.CacheConfig;
 import com.eventseat.catalog.web.dto.VenueDto;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
@@ -37,11 +40,14 @@ public class VenueJdbcRepository {
         return dto;
     }
 
+    @CacheEvict(cacheNames = CacheConfig.VENUES_BY_ID, key = "#id")
     public int update(Long id, VenueDto dto) {
         final String sql = "UPDATE venues SET name=?, address=?, city=?, timezone=? WHERE id=?";
         return jdbcTemplate.update(sql, dto.getName(), dto.getAddress(), dto.getCity(), dto.getTimezone(), id);
     }
 
+    // Misses (empty) are not cached so newly created ids resolve immediately
+    @Cacheable(cacheNames = CacheConfig.VENUES_BY_ID, key = "#id", unless = "#result == null")
     public Optional<VenueDto> findById(Long id) {
         final String sql = "SELECT id, name, address, city, timezone FROM venues WHERE id=?";
         try {
@@ -74,6 +80,23 @@ public class VenueJdbcRepository {
         }, size, offset);
     }
 
+    /**
+     * Keyset page ordered by id DESC: venues with id < beforeId (all when null).
+     */
+    public List<VenueDto> findPageBefore(Long beforeId, int limit) {
+        final String sql = "SELECT id, name, address, city, timezone FROM venues WHERE id < ? ORDER BY id DESC LIMIT ?";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            VenueDto dto = new VenueDto();
+            dto.setId(rs.getLong("id"));
+            dto.setName(rs.getString("name"));
+            dto.setAddress(rs.getString("address"));
+            dto.setCity(rs.getString("city"));
+            dto.setTimezone(rs.getString("timezone"));
+            return dto;
+        }, beforeId == null ? Long.MAX_VALUE : beforeId, Math.max(1, limit));
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.VENUES_BY_ID, key = "#id")
     public int delete(Long id) {
         final String sql = "DELETE FROM venues WHERE id=?";
         return jdbcTemplate.update(sql, id);
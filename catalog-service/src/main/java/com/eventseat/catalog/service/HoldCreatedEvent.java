@@ -0,0 +1,10 @@
+package com.eventseat.catalog.service;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Published by HoldService when a hold is created; listeners that need the
+ * hold to be durable use an AFTER_COMMIT transactional listener.
+ */
+public record HoldCreatedEvent(Long holdId, Long eventId, OffsetDateTime expiresAt) {
+}
@@ -2,17 +2,32 @@ package com.eventseat.catalog.service;
 
 import com.eventseat.catalog.domain.HoldEntity;
 import com.eventseat.catalog.repository.HoldJdbcRepository;
+import jakarta.annotation.PreDestroy;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Periodically scans for expired ACTIVE holds and releases the seats.
- * Runs locally inside catalog-service (no external scheduler).
+ * Runs locally inside catalog-service (no external scheduler). Holds are
+ * normally released by HoldExpiryWheel within about a second of expiry; this
+ * poller is the safety net for anything the wheel missed (restarts, failures).
+ *
+ * Expired holds are walked with keyset pagination (id > last seen) in pages of
+ * catalog.hold-sweep.chunk-size. Each page is split by event and every event
+ * chunk is expired in its own short transaction with bulk UPDATEs, with up to
+ * catalog.hold-sweep.parallelism events processed concurrently.
  */
 @Component
 public class HoldExpiryScheduler {
@@ -21,30 +36,73 @@ public class HoldExpiryScheduler {
 
     private final HoldJdbcRepository holdRepo;
     private final HoldService holdService;
+    private final ExecutorService sweepPool;
 
-    public HoldExpiryScheduler(HoldJdbcRepository holdRepo, HoldService holdService) {
+    @Value("${catalog.hold-sweep.chunk-size:500}")
+    private int chunkSize;
+
+    public HoldExpiryScheduler(HoldJdbcRepository holdRepo, HoldService holdService,
+            @Value("${catalog.hold-sweep.parallelism:4}") int parallelism) {
         this.holdRepo = holdRepo;
         this.holdService = holdService;
+        this.sweepPool = Executors.newFixedThreadPool(Math.max(1, parallelism), r -> {
+            Thread t = new Thread(r, "hold-sweep");
+            t.setDaemon(true);
+            return t;
+        });
     }
 
     // Run every 60 seconds; fixedDelay means next run starts 60s after previous
     // completes
     @Scheduled(fixedDelay = 60_000L, initialDelay = 20_000L)
-    @Transactional // ensure each batch iteration has a txn boundary
     public void sweepExpiredHolds() {
         OffsetDateTime now = OffsetDateTime.now();
-        List<HoldEntity> expired = holdRepo.findExpiredActiveHolds(now);
-        if (expired.isEmpty()) {
-            return;
+        int limit = Math.max(1, chunkSize);
+        long afterId = 0L;
+        int released = 0;
+        while (true) {
+            List<HoldEntity> page = holdRepo.findExpiredActiveHoldsAfter(now, afterId, limit);
+            if (page.isEmpty()) {
+                break;
+            }
+            afterId = page.get(page.size() - 1).getId();
+            released += expirePage(page);
+            if (page.size() < limit) {
+                break;
+            }
+        }
+        if (released > 0) {
+            log.info("Released {} expired holds", released);
+        }
+    }
+
+    private int expirePage(List<HoldEntity> page) {
+        Map<Long, List<Long>> byEvent = new LinkedHashMap<>();
+        for (HoldEntity h : page) {
+            byEvent.computeIfAbsent(h.getEventId(), k -> new ArrayList<>()).add(h.getId());
         }
-        log.info("Releasing {} expired holds", expired.size());
-        for (HoldEntity e : expired) {
+        Map<Long, Future<Integer>> pending = new LinkedHashMap<>();
+        byEvent.forEach((eventId, holdIds) -> pending.put(eventId,
+                sweepPool.submit(() -> holdService.expireBatch(eventId, holdIds))));
+
+        int released = 0;
+        for (Map.Entry<Long, Future<Integer>> e : pending.entrySet()) {
             try {
-                holdService.expireAndRelease(e);
-            } catch (Exception ex) {
-                // Continue with others; log to console for local troubleshooting
-                log.warn("Failed to expire/release hold id={}: {}", e.getId(), ex.getMessage());
+                released += e.getValue().get();
+            } catch (ExecutionException ex) {
+                // Continue with other events; the next sweep retries this chunk
+                Throwable cause = ex.getCause() == null ? ex : ex.getCause();
+                log.warn("Failed to expire holds for eventId={}: {}", e.getKey(), cause.getMessage());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
             }
         }
+        return released;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sweepPool.shutdownNow();
     }
 }
@@ -0,0 +1,214 @@
+package com.eventseat.catalog.service;
+
+import com.eventseat.catalog.domain.HoldEntity;
+import com.eventseat.catalog.repository.HoldJdbcRepository;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Hierarchical timing wheel that releases holds within about one tick
+ * (catalog.hold-wheel.tick-ms, default 1s) of their expiresAt.
+ *
+ * Four levels of 64 slots cover 64 ticks, 64^2, 64^3 and 64^4 ticks
+ * (about 194 days at 1s); entries further out sit in the top level and are
+ * re-placed whenever their slot comes round. Registration is a lock-free
+ * enqueue; only the single wheel thread touches the slots.
+ *
+ * The wheel is rebuilt from ACTIVE rows of the holds table on startup.
+ * HoldExpiryScheduler keeps polling as a safety net.
+ */
+@Component
+public class HoldExpiryWheel implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(HoldExpiryWheel.class);
+
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private final HoldJdbcRepository holdRepo;
+    private final HoldService holdService;
+    private final ConcurrentLinkedQueue<Entry> incoming = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "hold-wheel");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // wheels[level][slot]; only accessed from the ticker thread
+    @SuppressWarnings("unchecked")
+    private final List<Entry>[][] wheels = new List[LEVELS][SLOTS];
+    private long currentTick;
+
+    @Value("${catalog.hold-wheel.enabled:true}")
+    private boolean enabled;
+
+    @Value("${catalog.hold-wheel.tick-ms:1000}")
+    private long tickMs;
+
+    @Value("${catalog.hold-sweep.chunk-size:500}")
+    private int chunkSize;
+
+    public HoldExpiryWheel(HoldJdbcRepository holdRepo, HoldService holdService) {
+        this.holdRepo = holdRepo;
+        this.holdService = holdService;
+        for (int l = 0; l < LEVELS; l++) {
+            for (int s = 0; s < SLOTS; s++) {
+                wheels[l][s] = new ArrayList<>();
+            }
+        }
+    }
+
+    private record Entry(long holdId, long eventId, long deadlineTick) {
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onHoldCreated(HoldCreatedEvent e) {
+        if (!enabled || e.expiresAt() == null)
+            return;
+        register(e.holdId(), e.eventId(), e.expiresAt().toInstant().toEpochMilli());
+    }
+
+    public void register(long holdId, long eventId, long expiresAtEpochMs) {
+        long step = Math.max(1L, tickMs);
+        // round up so the hold is never released before expiresAt
+        long deadlineTick = (expiresAtEpochMs + step - 1) / step;
+        incoming.add(new Entry(holdId, eventId, deadlineTick));
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled)
+            return;
+        startAt(System.currentTimeMillis());
+        int rebuilt = rebuildFromDatabase();
+        log.info("Hold expiry wheel started with {} active holds (tick={} ms)", rebuilt, tickMs);
+        ticker.scheduleAtFixedRate(() -> tick(System.currentTimeMillis()), tickMs, Math.max(1L, tickMs),
+                TimeUnit.MILLISECONDS);
+    }
+
+    private int rebuildFromDatabase() {
+        int limit = Math.max(1, chunkSize);
+        long afterId = 0L;
+        int count = 0;
+        while (true) {
+            List<HoldEntity> page = holdRepo.findActiveHoldsAfter(afterId, limit);
+            for (HoldEntity h : page) {
+                if (h.getExpiresAt() != null) {
+                    register(h.getId(), h.getEventId(), h.getExpiresAt().toInstant().toEpochMilli());
+                    count++;
+                }
+            }
+            if (page.size() < limit)
+                return count;
+            afterId = page.get(page.size() - 1).getId();
+        }
+    }
+
+    // Package-private with an explicit clock for tests; otherwise wheel thread only
+    void startAt(long nowMs) {
+        currentTick = nowMs / Math.max(1L, tickMs);
+    }
+
+    void tick(long nowMs) {
+        try {
+            List<Entry> due = new ArrayList<>();
+            Entry e;
+            while ((e = incoming.poll()) != null) {
+                place(e, due);
+            }
+            long target = nowMs / Math.max(1L, tickMs);
+            // catch up if a tick was delayed (GC pause, slow DB on a previous tick)
+            while (currentTick < target) {
+                advance(due);
+            }
+            if (!due.isEmpty()) {
+                release(due);
+            }
+        } catch (Exception ex) {
+            // never let the scheduled task die; the poller covers anything missed
+            log.warn("Hold expiry wheel tick failed: {}", ex.getMessage());
+        }
+    }
+
+    private void advance(List<Entry> due) {
+        currentTick++;
+        // cascade higher levels first so entries can fall through to level 0
+        for (int level = LEVELS - 1; level >= 1; level--) {
+            long span = 1L << (SLOT_BITS * level);
+            if ((currentTick & (span - 1)) == 0) {
+                int slot = (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+                List<Entry> moved = wheels[level][slot];
+                wheels[level][slot] = new ArrayList<>();
+                for (Entry m : moved) {
+                    place(m, due);
+                }
+            }
+        }
+        int slot = (int) (currentTick & SLOT_MASK);
+        List<Entry> bucket = wheels[0][slot];
+        wheels[0][slot] = new ArrayList<>();
+        for (Entry b : bucket) {
+            place(b, due);
+        }
+    }
+
+    private void place(Entry e, List<Entry> due) {
+        long delta = e.deadlineTick() - currentTick;
+        if (delta <= 0) {
+            due.add(e);
+            return;
+        }
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        int slot = (int) ((e.deadlineTick() >>> (SLOT_BITS * level)) & SLOT_MASK);
+        wheels[level][slot].add(e);
+    }
+
+    private void release(List<Entry> due) {
+        Map<Long, List<Long>> byEvent = new LinkedHashMap<>();
+        for (Entry e : due) {
+            byEvent.computeIfAbsent(e.eventId(), k -> new ArrayList<>()).add(e.holdId());
+        }
+        int limit = Math.max(1, chunkSize);
+        int released = 0;
+        for (Map.Entry<Long, List<Long>> ev : byEvent.entrySet()) {
+            List<Long> ids = ev.getValue();
+            for (int from = 0; from < ids.size(); from += limit) {
+                List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + limit));
+                try {
+                    // holds already released/expired are skipped by expireBatch
+                    released += holdService.expireBatch(ev.getKey(), new ArrayList<>(chunk));
+                } catch (Exception ex) {
+                    log.warn("Wheel failed to expire holds for eventId={}: {}", ev.getKey(), ex.getMessage());
+                }
+            }
+        }
+        if (released > 0) {
+            log.debug("Hold expiry wheel released {} holds", released);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        ticker.shutdownNow();
+    }
+}
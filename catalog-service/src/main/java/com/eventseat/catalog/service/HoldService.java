@@ -11,15 +11,17 @@ import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 import java.util.Map;
 import java.util.HashMap;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 @Service
@@ -29,13 +31,29 @@ public class HoldService {
 
     private final HoldJdbcRepository holdRepo;
     private final SeatJdbcRepository seatRepo;
+    private final SeatAvailabilityIndex seatIndex;
+    private final SeatLockManager seatLocks;
+    private final InventorySummaryDeltas summaryDeltas;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate tx;
 
-    public HoldService(HoldJdbcRepository holdRepo, SeatJdbcRepository seatRepo) {
+    public HoldService(HoldJdbcRepository holdRepo, SeatJdbcRepository seatRepo, SeatAvailabilityIndex seatIndex,
+            SeatLockManager seatLocks, InventorySummaryDeltas summaryDeltas, ApplicationEventPublisher events,
+            PlatformTransactionManager txManager) {
         this.holdRepo = holdRepo;
         this.seatRepo = seatRepo;
+        this.seatIndex = seatIndex;
+        this.seatLocks = seatLocks;
+        this.summaryDeltas = summaryDeltas;
+        this.events = events;
+        this.tx = new TransactionTemplate(txManager);
     }
 
-    @Transactional
+    /**
+     * Creates an ACTIVE hold. The seat stripes are taken before the write
+     * transaction opens (see SeatLockManager); the transaction itself only
+     * holds a connection for the seat and hold writes.
+     */
     public HoldResponse createHold(HoldCreateRequest req, Jwt jwt) {
         Long jwtUid = extractUid(jwt);
         boolean isAdmin = hasRole(jwt, "ADMIN");
@@ -52,12 +70,31 @@ public class HoldService {
         OffsetDateTime now = OffsetDateTime.now();
         OffsetDateTime expiresAt = now.plus(ttl, ChronoUnit.MINUTES);
 
+        // Reject seats already known to be HELD/SOLD without a DB round trip
+        Map<Long, Object> known = seatIndex.findUnavailable(req.getEventId(), req.getSeatIds());
+        if (!known.isEmpty()) {
+            throw new HoldConflictException("One or more seats are not AVAILABLE", known);
+        }
+
+        // Serialize with overlapping hold/release/expiry requests until commit
+        return seatLocks.callLocked(req.getEventId(), req.getSeatIds(),
+                () -> tx.execute(status -> insertHold(req, now, expiresAt)));
+    }
+
+    private HoldResponse insertHold(HoldCreateRequest req, OffsetDateTime now, OffsetDateTime expiresAt) {
         // Attempt to mark requested seats as HELD atomically (within tx)
         int updated = holdRepo.updateSeatsToHeld(req.getEventId(), req.getSeatIds());
         if (updated != req.getSeatIds().size()) {
             // Not all seats were AVAILABLE - build diagnostics and return informative 409
             List<Long> ids = req.getSeatIds();
             Map<Long, String> statuses = seatRepo.findStatusesForEventAndIds(req.getEventId(), ids);
+            // Only SOLD is certain here: HELD may be our own (rolled back) update
+            Map<Long, String> sold = new HashMap<>();
+            statuses.forEach((sid, s) -> {
+                if ("SOLD".equalsIgnoreCase(s))
+                    sold.put(sid, s);
+            });
+            seatIndex.applyStatuses(req.getEventId(), sold);
             Map<Long, Object> diag = new HashMap<>();
             for (Long sid : ids) {
                 if (!statuses.containsKey(sid)) {
@@ -83,11 +120,14 @@ public class HoldService {
             throw new HoldConflictException("One or more seats are not AVAILABLE", diag);
         }
 
-        String seatIdsCsv = toCsv(req.getSeatIds());
-        long holdId = holdRepo.insertActive(req.getAttendeeId(), req.getEventId(), seatIdsCsv, now, expiresAt);
+        long holdId = holdRepo.insertActive(req.getAttendeeId(), req.getEventId(), req.getSeatIds(), now, expiresAt);
         if (holdId <= 0) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to create hold");
         }
+        // Counted after commit: no writer waits on the per-event summary row
+        summaryDeltas.addOnCommit(req.getEventId(), -updated, updated, 0);
+        seatIndex.markHeldOnCommit(req.getEventId(), req.getSeatIds());
+        events.publishEvent(new HoldCreatedEvent(holdId, req.getEventId(), expiresAt));
 
         HoldResponse resp = new HoldResponse();
         resp.setId(holdId);
@@ -115,14 +155,35 @@ public class HoldService {
         resp.setId(e.getId());
         resp.setAttendeeId(e.getAttendeeId());
         resp.setEventId(e.getEventId());
-        resp.setSeatIds(fromCsv(e.getSeatIdsCsv()));
+        resp.setSeatIds(holdRepo.findSeatIds(e.getId()));
+        resp.setStatus(e.getStatus().name());
+        resp.setCreatedAt(e.getCreatedAt());
+        resp.setExpiresAt(e.getExpiresAt());
+        return resp;
+    }
+
+    /**
+     * Reverse lookup (ADMIN only): which ACTIVE hold currently owns a seat.
+     */
+    @Transactional(readOnly = true)
+    public HoldResponse getActiveHoldBySeat(Long seatId, Jwt jwt) {
+        if (!hasRole(jwt, "ADMIN")) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "admin_role_required");
+        }
+        HoldEntity e = holdRepo.findActiveHoldBySeat(seatId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No active hold for seat"));
+
+        HoldResponse resp = new HoldResponse();
+        resp.setId(e.getId());
+        resp.setAttendeeId(e.getAttendeeId());
+        resp.setEventId(e.getEventId());
+        resp.setSeatIds(holdRepo.findSeatIds(e.getId()));
         resp.setStatus(e.getStatus().name());
         resp.setCreatedAt(e.getCreatedAt());
         resp.setExpiresAt(e.getExpiresAt());
         return resp;
     }
 
-    @Transactional
     public void releaseHold(Long id, Jwt jwt) {
         HoldEntity e = holdRepo.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Hold not found"));
@@ -133,39 +194,60 @@ public class HoldService {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed to release this hold");
         }
 
-        List<Long> seatIds = fromCsv(e.getSeatIdsCsv());
-        // Release seats first
-        holdRepo.updateSeatsToAvailable(e.getEventId(), seatIds);
-        // Mark hold released (only if it was ACTIVE)
-        holdRepo.markReleased(e.getId());
+        List<Long> seatIds = holdRepo.findSeatIds(e.getId());
+        seatLocks.callLocked(e.getEventId(), seatIds, () -> tx.execute(status -> {
+            // Release seats first
+            int released = holdRepo.updateSeatsToAvailable(e.getEventId(), seatIds);
+            // Mark hold released (only if it was ACTIVE)
+            holdRepo.markReleased(e.getId());
+            summaryDeltas.addOnCommit(e.getEventId(), released, -released, 0);
+            seatIndex.markAvailableOnCommit(e.getEventId(), seatIds);
+            return released;
+        }));
     }
 
-    // Scheduled job will call this per expired hold (wrapped in its own tx)
-    @Transactional
+    // Kept for single-hold callers; delegates to the batched path
     public void expireAndRelease(HoldEntity e) {
         if (e.getStatus() != HoldEntity.Status.ACTIVE)
             return;
-        List<Long> seatIds = fromCsv(e.getSeatIdsCsv());
-        holdRepo.updateSeatsToAvailable(e.getEventId(), seatIds);
-        holdRepo.markExpired(e.getId());
+        expireBatch(e.getEventId(), List.of(e.getId()));
     }
 
-    private String toCsv(List<Long> ids) {
-        return ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+    /**
+     * Expires a chunk of holds of one event in a single transaction: one bulk
+     * UPDATE releases all their seats and one bulk UPDATE marks them EXPIRED.
+     * Holds released concurrently are skipped. Returns the number of holds
+     * expired.
+     */
+    public int expireBatch(Long eventId, List<Long> holdIds) {
+        if (holdIds == null || holdIds.isEmpty())
+            return 0;
+        Map<Long, List<Long>> seatsByHold = holdRepo.findSeatIdsByHoldIds(holdIds);
+        List<Long> candidateSeats = new ArrayList<>();
+        seatsByHold.values().forEach(candidateSeats::addAll);
+        // Same order as create/release: in-process seat locks first, then rows
+        Integer expired = seatLocks.callLocked(eventId, candidateSeats,
+                () -> tx.execute(status -> expireLocked(eventId, holdIds, seatsByHold)));
+        return expired == null ? 0 : expired;
     }
 
-    private List<Long> fromCsv(String csv) {
-        if (csv == null || csv.isBlank())
-            return List.of();
-        String[] parts = csv.split(",");
-        List<Long> out = new ArrayList<>(parts.length);
-        for (String p : parts) {
-            try {
-                out.add(Long.parseLong(p.trim()));
-            } catch (NumberFormatException ignore) {
-            }
+    private int expireLocked(Long eventId, List<Long> holdIds, Map<Long, List<Long>> seatsByHold) {
+        List<HoldEntity> active = holdRepo.lockActiveHolds(holdIds);
+        List<Long> expiredIds = new ArrayList<>(active.size());
+        List<Long> seatIds = new ArrayList<>();
+        for (HoldEntity h : active) {
+            if (!Objects.equals(h.getEventId(), eventId))
+                continue;
+            expiredIds.add(h.getId());
+            seatIds.addAll(seatsByHold.getOrDefault(h.getId(), List.of()));
         }
-        return out;
+        if (expiredIds.isEmpty())
+            return 0;
+        int released = holdRepo.updateSeatsToAvailable(eventId, seatIds);
+        int expired = holdRepo.markExpired(expiredIds);
+        summaryDeltas.addOnCommit(eventId, released, -released, 0);
+        seatIndex.markAvailableOnCommit(eventId, seatIds);
+        return expired;
     }
 
     private Long extractUid(Jwt jwt) {
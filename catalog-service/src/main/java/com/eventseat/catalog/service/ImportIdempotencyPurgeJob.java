@@ -0,0 +1,115 @@
+package com.eventseat.catalog.service;
+
+import com.eventseat.catalog.repository.DailyPartitions;
+import com.eventseat.catalog.repository.IdempotencyImportJdbcRepository;
+import com.eventseat.catalog.repository.ImportRowResultJdbcRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.OffsetDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Expires import idempotency rows and their row results after
+ * catalog.import.idempotency.retention-days. Both tables are partitioned by day
+ * bucket: each run pre-creates the next days' partitions and drops whole days
+ * past retention. If a table is not partitioned the job falls back to batched
+ * deletes. Table sizes are published as idempotency.table.rows / .bytes /
+ * .partitions tagged by table, refreshed on each run.
+ */
+@Component
+public class ImportIdempotencyPurgeJob {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportIdempotencyPurgeJob.class);
+
+    private static final String IMPORTS = "idempotency_imports";
+    private static final String ROW_RESULTS = "import_row_results";
+
+    private final IdempotencyImportJdbcRepository idemRepo;
+    private final ImportRowResultJdbcRepository rowResultRepo;
+    private final TableGauges imports;
+    private final TableGauges rowResults;
+
+    @Value("${catalog.import.idempotency.retention-days:7}")
+    private int retentionDays;
+
+    @Value("${catalog.import.idempotency.partitions-ahead:3}")
+    private int partitionsAhead;
+
+    @Value("${catalog.import.idempotency.purge-batch:1000}")
+    private int batchSize;
+
+    public ImportIdempotencyPurgeJob(JdbcTemplate jdbcTemplate, IdempotencyImportJdbcRepository idemRepo,
+            ImportRowResultJdbcRepository rowResultRepo, MeterRegistry meterRegistry) {
+        this.idemRepo = idemRepo;
+        this.rowResultRepo = rowResultRepo;
+        this.imports = new TableGauges(new DailyPartitions(jdbcTemplate, IMPORTS), IMPORTS, meterRegistry);
+        this.rowResults = new TableGauges(new DailyPartitions(jdbcTemplate, ROW_RESULTS), ROW_RESULTS, meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.import.idempotency.purge-ms:3600000}", initialDelay = 30_000L)
+    public void purgeExpired() {
+        int cutoff = DailyPartitions.today() - Math.max(1, retentionDays);
+        int limit = Math.max(1, batchSize);
+        for (TableGauges t : new TableGauges[] { imports, rowResults }) {
+            try {
+                if (t.partitions.isPartitioned()) {
+                    t.partitions.ensureAhead(partitionsAhead);
+                    int dropped = t.partitions.dropBefore(cutoff);
+                    if (dropped > 0)
+                        log.info("Dropped {} expired day partitions of '{}'", dropped, t.table);
+                } else {
+                    int purged = purgeUnpartitioned(t.table, cutoff, limit);
+                    if (purged > 0)
+                        log.info("Purged {} expired rows of '{}'", purged, t.table);
+                }
+                t.refresh();
+            } catch (Exception ex) {
+                log.warn("Idempotency purge failed for '{}': {}", t.table, ex.getMessage());
+            }
+        }
+    }
+
+    private int purgeUnpartitioned(String table, int cutoffBucket, int limit) {
+        OffsetDateTime cutoff = OffsetDateTime.now().minusDays(Math.max(1, retentionDays));
+        int purged = 0;
+        while (true) {
+            int n = IMPORTS.equals(table) ? idemRepo.deleteCreatedBefore(cutoff, limit)
+                    : rowResultRepo.deleteBucketsBefore(cutoffBucket, limit);
+            purged += n;
+            if (n < limit)
+                return purged;
+        }
+    }
+
+    private static final class TableGauges {
+        final DailyPartitions partitions;
+        final String table;
+        final AtomicLong rows = new AtomicLong();
+        final AtomicLong bytes = new AtomicLong();
+        final AtomicLong partitionCount = new AtomicLong();
+
+        TableGauges(DailyPartitions partitions, String table, MeterRegistry meterRegistry) {
+            this.partitions = partitions;
+            this.table = table;
+            Gauge.builder("idempotency.table.rows", rows, AtomicLong::get).tag("table", table)
+                    .register(meterRegistry);
+            Gauge.builder("idempotency.table.bytes", bytes, AtomicLong::get).tag("table", table)
+                    .baseUnit("bytes").register(meterRegistry);
+            Gauge.builder("idempotency.table.partitions", partitionCount, AtomicLong::get).tag("table", table)
+                    .register(meterRegistry);
+        }
+
+        void refresh() {
+            DailyPartitions.Stats s = partitions.stats();
+            rows.set(s.rows());
+            bytes.set(s.bytes());
+            partitionCount.set(s.partitions());
+        }
+    }
+}
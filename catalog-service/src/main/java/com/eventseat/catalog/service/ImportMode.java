@@ -0,0 +1,27 @@
+package com.eventseat.catalog.service;
+
+import java.util.Locale;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * How an inventory import applies the file to the event's seats.
+ *
+ * FULL upserts every row (and resets status to AVAILABLE). DELTA diffs the file
+ * against the current seats by natural key and price/currency hash, writes only
+ * added and changed seats without touching their status, and removes seats
+ * missing from the file unless they are HELD or SOLD.
+ */
+public enum ImportMode {
+    FULL, DELTA;
+
+    public static ImportMode parse(String value) {
+        if (value == null || value.isBlank())
+            return FULL;
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid_import_mode");
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.eventseat.catalog.service;
+
+/**
+ * Receives progress from InventoryImportService as chunks complete. Called from
+ * import worker threads, possibly concurrently.
+ */
+@FunctionalInterface
+public interface ImportProgressListener {
+
+    ImportProgressListener NONE = (rows, succeeded) -> {
+    };
+
+    void chunkWritten(int rows, int succeeded);
+}
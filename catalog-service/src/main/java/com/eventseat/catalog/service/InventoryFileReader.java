@@ -0,0 +1,204 @@
+package com.eventseat.catalog.service;
+
+import com.eventseat.catalog.web.dto.ImportDtos.ImportRowRequest;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Component;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+/**
+ * Streams inventory rows out of an uploaded CSV or XLSX file, one row at a
+ * time, without materializing the file or the row list.
+ *
+ * CSV is read record by record with Commons CSV. XLSX is spooled to a temp file
+ * (the zip needs random access) and the first sheet is parsed with POI's SAX
+ * event model, so only the shared-strings table is held in memory.
+ */
+@Component
+public class InventoryFileReader {
+
+    private static final String XLSX_CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
+    public void read(String filename, String contentType, InputStreamSource source,
+            Consumer<ImportRowRequest> sink) throws IOException {
+        String lowerName = filename == null ? "" : filename.toLowerCase(Locale.ROOT);
+        String ct = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+        if (lowerName.endsWith(".xlsx") || (!lowerName.endsWith(".csv") && ct.contains(XLSX_CONTENT_TYPE))) {
+            readXlsx(source, sink);
+        } else {
+            // CSV, and fallback attempt for unknown types
+            readCsv(source, sink);
+        }
+    }
+
+    private void readCsv(InputStreamSource source, Consumer<ImportRowRequest> sink) throws IOException {
+        CSVFormat format = CSVFormat.DEFAULT.builder()
+                .setHeader()
+                .setSkipHeaderRecord(true)
+                .setIgnoreEmptyLines(true)
+                .setTrim(true)
+                .build();
+        try (Reader reader = new InputStreamReader(new BufferedInputStream(source.getInputStream()),
+                StandardCharsets.UTF_8);
+                CSVParser parser = CSVParser.parse(reader, format)) {
+            for (CSVRecord rec : parser) {
+                ImportRowRequest r = new ImportRowRequest();
+                r.section = get(rec, "section");
+                r.rowLabel = get(rec, "rowLabel");
+                r.seatNumber = get(rec, "seatNumber");
+                r.currency = get(rec, "currency");
+                r.basePrice = parseDecimal(get(rec, "basePrice"));
+                sink.accept(r);
+            }
+        } catch (IllegalStateException | java.io.UncheckedIOException ex) {
+            // Commons CSV wraps malformed input in unchecked exceptions while iterating
+            throw new IOException(ex.getMessage(), ex);
+        }
+    }
+
+    private String get(CSVRecord rec, String name) {
+        try {
+            return rec.isMapped(name) ? emptyToNull(rec.get(name)) : null;
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private void readXlsx(InputStreamSource source, Consumer<ImportRowRequest> sink) throws IOException {
+        Path tmp = Files.createTempFile("inventory-import-", ".xlsx");
+        try {
+            try (InputStream in = source.getInputStream()) {
+                Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            try (OPCPackage pkg = OPCPackage.open(tmp.toFile(), PackageAccess.READ)) {
+                XSSFReader reader = new XSSFReader(pkg);
+                ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+                StylesTable styles = reader.getStylesTable();
+                Iterator<InputStream> sheets = reader.getSheetsData();
+                if (!sheets.hasNext())
+                    return;
+                try (InputStream sheet = sheets.next()) {
+                    XMLReader parser = XMLHelper.newXMLReader();
+                    parser.setContentHandler(new XSSFSheetXMLHandler(styles, null, strings,
+                            new RowHandler(sink), new RawNumberFormatter(), false));
+                    parser.parse(new InputSource(sheet));
+                }
+            }
+        } catch (IOException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new IOException(ex.getMessage(), ex);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Maps header names on the first row to column indexes and emits one request
+     * per following row.
+     */
+    private final class RowHandler implements SheetContentsHandler {
+        private final Consumer<ImportRowRequest> sink;
+        private final Map<Integer, String> columns = new HashMap<>();
+        private final Map<String, String> values = new HashMap<>();
+        private boolean header = true;
+        private int nextCol;
+
+        RowHandler(Consumer<ImportRowRequest> sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            values.clear();
+            nextCol = 0;
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int col = cellReference == null ? nextCol : new CellReference(cellReference).getCol();
+            nextCol = col + 1;
+            if (header) {
+                if (formattedValue != null)
+                    columns.put(col, formattedValue.trim().toLowerCase(Locale.ROOT));
+                return;
+            }
+            String name = columns.get(col);
+            if (name != null)
+                values.put(name, emptyToNull(formattedValue));
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (header) {
+                header = false;
+                return;
+            }
+            ImportRowRequest r = new ImportRowRequest();
+            r.section = values.get("section");
+            r.rowLabel = values.get("rowlabel");
+            r.seatNumber = values.get("seatnumber");
+            r.currency = values.get("currency");
+            r.basePrice = parseDecimal(values.get("baseprice"));
+            sink.accept(r);
+        }
+    }
+
+    /**
+     * Renders numeric cells as String.valueOf(double), like the previous DOM
+     * reader did, so natural keys of already imported seats (e.g. seat "12.0")
+     * keep matching on re-import.
+     */
+    private static final class RawNumberFormatter extends DataFormatter {
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString) {
+            return String.valueOf(value);
+        }
+    }
+
+    private String emptyToNull(String s) {
+        if (s == null)
+            return null;
+        String t = s.trim();
+        return t.isEmpty() ? null : t;
+    }
+
+    private BigDecimal parseDecimal(String s) {
+        if (s == null || s.isBlank())
+            return null;
+        try {
+            return new BigDecimal(s.trim());
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
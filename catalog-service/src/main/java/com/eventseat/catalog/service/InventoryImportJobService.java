@@ -0,0 +1,229 @@
+package com.eventseat.catalog.service;
+
+import com.eventseat.catalog.web.dto.ImportDtos.ImportJobStatus;
+import com.eventseat.catalog.web.dto.ImportDtos.ImportReport;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Runs inventory imports as background jobs so the upload request returns
+ * immediately with a job id.
+ *
+ * The upload is copied to a temp file first (the multipart store is cleaned up
+ * when the request ends), then queued on a bounded executor
+ * (catalog.import.jobs.workers threads, catalog.import.jobs.queue-capacity
+ * waiting jobs; beyond that submissions get 503). Jobs are kept in memory for
+ * progress polling and dropped catalog.import.jobs.retention-minutes after they
+ * finish. The final report is persisted to idempotency_imports by
+ * InventoryImportService exactly as for synchronous imports; the key claim it
+ * takes there when the job starts also turns away a synchronous import (or a
+ * job on another instance) with the same key.
+ */
+@Service
+public class InventoryImportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryImportJobService.class);
+
+    private final InventoryImportService importService;
+    private final ThreadPoolExecutor jobPool;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    // idempotency key -> queued/running job for that key
+    private final Map<String, Job> activeByKey = new ConcurrentHashMap<>();
+
+    @Value("${catalog.import.jobs.retention-minutes:60}")
+    private long retentionMinutes;
+
+    public InventoryImportJobService(InventoryImportService importService,
+            @Value("${catalog.import.jobs.workers:2}") int workers,
+            @Value("${catalog.import.jobs.queue-capacity:16}") int queueCapacity) {
+        this.importService = importService;
+        int n = Math.max(1, workers);
+        this.jobPool = new ThreadPoolExecutor(n, n, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), r -> {
+                    Thread t = new Thread(r, "inventory-import-job");
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    private static final class Job {
+        final String id = UUID.randomUUID().toString();
+        final Long eventId;
+        final String idempotencyKey;
+        final byte[] requestHash;
+        final OffsetDateTime submittedAt = OffsetDateTime.now();
+        final AtomicLong processed = new AtomicLong();
+        final AtomicLong succeeded = new AtomicLong();
+        volatile String status = "QUEUED";
+        volatile OffsetDateTime startedAt;
+        volatile OffsetDateTime finishedAt;
+        volatile String error;
+        volatile ImportReport report;
+
+        Job(Long eventId, String idempotencyKey, byte[] requestHash) {
+            this.eventId = eventId;
+            this.idempotencyKey = idempotencyKey;
+            this.requestHash = requestHash;
+        }
+
+        ImportJobStatus toStatus() {
+            ImportJobStatus s = new ImportJobStatus();
+            s.setJobId(id);
+            s.setStatus(status);
+            s.setEventId(eventId);
+            s.setIdempotencyKey(idempotencyKey);
+            long rows = processed.get();
+            long ok = succeeded.get();
+            s.setRowsProcessed(rows);
+            s.setRowsSucceeded(ok);
+            s.setRowsFailed(rows - ok);
+            s.setSubmittedAt(submittedAt);
+            s.setStartedAt(startedAt);
+            s.setFinishedAt(finishedAt);
+            if (startedAt != null) {
+                OffsetDateTime end = finishedAt == null ? OffsetDateTime.now() : finishedAt;
+                long ms = Math.max(1L, Duration.between(startedAt, end).toMillis());
+                s.setRowsPerSecond(rows * 1000.0 / ms);
+            }
+            s.setError(error);
+            s.setReport(report);
+            return s;
+        }
+    }
+
+    /**
+     * Queues an import and returns its initial status. A second submission with
+     * the idempotency key of a job that is still queued or running returns that
+     * job instead of starting another, or 409 if its filename, mode or file
+     * content differ. The key is claimed only once the upload is copied and
+     * hashed, in one putIfAbsent, so a concurrent duplicate always finds the
+     * whole job.
+     */
+    public ImportJobStatus submit(Long eventId, String idempotencyKey, String originalFilename, String contentType,
+            InputStreamSource upload, ImportMode mode) {
+        if (eventId == null || eventId <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "eventId_required");
+        }
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "idempotency_key_required");
+        }
+        MessageDigest digest = newSha256();
+        Path tmp;
+        try {
+            tmp = Files.createTempFile("inventory-job-", ".upload");
+            try (InputStream in = new DigestInputStream(upload.getInputStream(), digest)) {
+                Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "file_read_error");
+        }
+        digest.update(((originalFilename == null ? "" : originalFilename) + "|" + eventId + "|" + mode)
+                .getBytes(StandardCharsets.UTF_8));
+
+        Job job = new Job(eventId, idempotencyKey, digest.digest());
+        Job running = activeByKey.putIfAbsent(idempotencyKey, job);
+        if (running != null) {
+            deleteQuietly(tmp);
+            if (!running.eventId.equals(eventId) || !MessageDigest.isEqual(running.requestHash, job.requestHash)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "idempotency_key_reuse_with_different_request");
+            }
+            return running.toStatus();
+        }
+
+        jobs.put(job.id, job);
+        try {
+            jobPool.execute(() -> run(job, originalFilename, contentType, mode, tmp));
+        } catch (RejectedExecutionException ex) {
+            jobs.remove(job.id);
+            activeByKey.remove(idempotencyKey, job);
+            deleteQuietly(tmp);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "import_queue_full");
+        }
+        return job.toStatus();
+    }
+
+    public ImportJobStatus getStatus(String jobId) {
+        Job job = jobId == null ? null : jobs.get(jobId);
+        return job == null ? null : job.toStatus();
+    }
+
+    private void run(Job job, String originalFilename, String contentType, ImportMode mode, Path upload) {
+        job.startedAt = OffsetDateTime.now();
+        job.status = "RUNNING";
+        try {
+            job.report = importService.importInventory(job.eventId, job.idempotencyKey, originalFilename,
+                    contentType, new FileSystemResource(upload), mode, (rows, succeeded) -> {
+                        job.processed.addAndGet(rows);
+                        job.succeeded.addAndGet(succeeded);
+                    });
+            // Replays return the stored report without writing rows; reflect its counts
+            job.processed.set(job.report.getTotal());
+            job.succeeded.set(job.report.getSuccess());
+            job.status = "COMPLETED";
+        } catch (ResponseStatusException ex) {
+            job.error = ex.getReason();
+            job.status = "FAILED";
+        } catch (Exception ex) {
+            log.warn("Import job {} for eventId={} failed: {}", job.id, job.eventId, ex.getMessage());
+            job.error = "internal_error";
+            job.status = "FAILED";
+        } finally {
+            job.finishedAt = OffsetDateTime.now();
+            activeByKey.remove(job.idempotencyKey, job);
+            deleteQuietly(upload);
+        }
+    }
+
+    @Scheduled(fixedDelay = 60_000L, initialDelay = 60_000L)
+    public void purgeFinishedJobs() {
+        OffsetDateTime cutoff = OffsetDateTime.now().minusMinutes(Math.max(1L, retentionMinutes));
+        jobs.values().removeIf(j -> j.finishedAt != null && j.finishedAt.isBefore(cutoff));
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void deleteQuietly(Path p) {
+        try {
+            Files.deleteIfExists(p);
+        } catch (IOException ignore) {
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobPool.shutdownNow();
+    }
+}
@@ -1,126 +1,739 @@
 package com.eventseat.catalog.service;
 
+import com.eventseat.catalog.repository.DailyPartitions;
 import com.eventseat.catalog.repository.IdempotencyImportJdbcRepository;
+import com.eventseat.catalog.repository.ImportRowResultJdbcRepository;
 import com.eventseat.catalog.repository.SeatJdbcRepository;
 import com.eventseat.catalog.web.dto.ImportDtos.ImportReport;
 import com.eventseat.catalog.web.dto.ImportDtos.ImportRowRequest;
 import com.eventseat.catalog.web.dto.ImportDtos.ImportRowResult;
+import com.eventseat.catalog.web.dto.SeatDto;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import java.io.BufferedInputStream;
-import java.io.ByteArrayInputStream;
+import jakarta.annotation.PreDestroy;
 import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.CellType;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.xssf.usermodel.XSSFSheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 @Service
 public class InventoryImportService {
 
+    private static final Logger log = LoggerFactory.getLogger(InventoryImportService.class);
+    private static final int CHUNK_LOCK_RETRIES = 3;
+
     private final SeatJdbcRepository seatRepo;
     private final IdempotencyImportJdbcRepository idemRepo;
+    private final ImportRowResultJdbcRepository rowResultRepo;
+    private final SeatAvailabilityIndex seatIndex;
+    private final InventorySummaryDeltas summaryDeltas;
+    private final InventoryFileReader fileReader;
+    private final TransactionTemplate chunkTx;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
-    public InventoryImportService(SeatJdbcRepository seatRepo, IdempotencyImportJdbcRepository idemRepo) {
+    @Value("${catalog.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${catalog.import.report.inline-failures:100}")
+    private int inlineFailures;
+
+    @Value("${catalog.import.idempotency.claim-timeout-minutes:60}")
+    private long claimTimeoutMinutes;
+
+    private final int parallelism;
+    private final ExecutorService importPool;
+
+    public InventoryImportService(SeatJdbcRepository seatRepo, IdempotencyImportJdbcRepository idemRepo,
+            ImportRowResultJdbcRepository rowResultRepo, SeatAvailabilityIndex seatIndex,
+            InventorySummaryDeltas summaryDeltas, InventoryFileReader fileReader,
+            PlatformTransactionManager txManager,
+            @Value("${catalog.import.parallelism:4}") int parallelism) {
         this.seatRepo = seatRepo;
         this.idemRepo = idemRepo;
+        this.rowResultRepo = rowResultRepo;
+        this.seatIndex = seatIndex;
+        this.summaryDeltas = summaryDeltas;
+        this.fileReader = fileReader;
+        this.chunkTx = new TransactionTemplate(txManager);
+        this.parallelism = Math.max(1, parallelism);
+        this.importPool = Executors.newFixedThreadPool(this.parallelism, r -> {
+            Thread t = new Thread(r, "inventory-import");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        importPool.shutdownNow();
+    }
+
+    /**
+     * Imports seats from a CSV/XLSX upload. The idempotency key is looked up
+     * before the body is touched; a new import claims the key (409
+     * import_in_progress while another import holds it), then reads the file
+     * exactly once, hashing it through a DigestInputStream while it is parsed,
+     * and a replay reads it once to verify the hash. Rows are written in chunks of
+     * catalog.import.batch-size, so memory does not grow with the file. Row
+     * results go to import_row_results chunk by chunk; the returned (and cached)
+     * report only holds the totals and the first failures. Rows are sharded by
+     * section over a bounded worker pool (see ImportLanes); each chunk is written
+     * in its own transaction as one batched INSERT ... ON DUPLICATE KEY UPDATE on
+     * the unique natural key.
+     */
+    public ImportReport importInventory(Long eventId, String idempotencyKey, String originalFilename,
+            String contentType, InputStreamSource file) {
+        return importInventory(eventId, idempotencyKey, originalFilename, contentType, file, ImportMode.FULL,
+                ImportProgressListener.NONE);
     }
 
+    /**
+     * Same as above in the given mode (see ImportMode), reporting per-chunk
+     * progress (used by async import jobs).
+     */
     public ImportReport importInventory(Long eventId, String idempotencyKey, String originalFilename,
-            String contentType, byte[] bytes) {
+            String contentType, InputStreamSource file, ImportMode mode, ImportProgressListener progress) {
         if (eventId == null || eventId <= 0) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "eventId_required");
         }
         if (idempotencyKey == null || idempotencyKey.isBlank()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "idempotency_key_required");
         }
-        String requestHash = sha256Hex(
-                (originalFilename == null ? "" : originalFilename) + "|" + eventId + "|" + sha256Hex(bytes));
-
-        // Idempotency check
+        // Idempotency check on the key first: only a known key needs the file hash
+        // up front, to tell a replay from a conflicting reuse
         var cached = idemRepo.findByKey(idempotencyKey);
-        if (cached != null) {
+        if (cached != null && cached.responseJson != null && !cached.responseJson.isBlank()) {
+            String requestHash = requestHash(originalFilename, eventId, mode, sha256Hex(file));
             if (!requestHash.equals(cached.requestHash)) {
                 throw new ResponseStatusException(HttpStatus.CONFLICT, "idempotency_key_reuse_with_different_request");
             }
-            if (cached.responseJson != null && !cached.responseJson.isBlank()) {
-                try {
-                    return objectMapper.readValue(cached.responseJson, ImportReport.class);
-                } catch (IOException e) {
-                    // fallthrough (re-process if cache can't be parsed)
-                }
+            try {
+                return objectMapper.readValue(cached.responseJson, ImportReport.class);
+            } catch (IOException e) {
+                log.warn("Unreadable import report for key {}, re-processing: {}", idempotencyKey, e.getMessage());
             }
         }
+        // Claim the key before any work, sync and async imports alike; the loser
+        // never touches the winner's row results
+        int bucket = claim(idempotencyKey, cached);
+        try {
+            return runImport(eventId, idempotencyKey, bucket, originalFilename, contentType, file, mode, progress);
+        } catch (RuntimeException ex) {
+            idemRepo.release(idempotencyKey, bucket);
+            throw ex;
+        }
+    }
 
-        List<ImportRowRequest> rows = parseFile(originalFilename, contentType, bytes);
+    /**
+     * Claims the key for this import and returns the claimed row's bucket; 409
+     * while another import holds it. A claim older than
+     * catalog.import.idempotency.claim-timeout-minutes (its import died) and a
+     * row with an unreadable report are taken over.
+     */
+    private int claim(String idempotencyKey, IdempotencyImportJdbcRepository.ImportCacheRow cached) {
+        if (cached == null) {
+            int bucket = DailyPartitions.today();
+            if (idemRepo.tryClaim(idempotencyKey, bucket))
+                return bucket;
+        } else {
+            boolean abandoned = cached.responseJson != null
+                    || cached.createdAt.isBefore(OffsetDateTime.now().minusMinutes(claimTimeoutMinutes));
+            if (abandoned && idemRepo.reclaim(idempotencyKey, cached.bucket, cached.createdAt))
+                return cached.bucket;
+        }
+        throw new ResponseStatusException(HttpStatus.CONFLICT, "import_in_progress");
+    }
 
+    private ImportReport runImport(Long eventId, String idempotencyKey, int bucket, String originalFilename,
+            String contentType, InputStreamSource file, ImportMode mode, ImportProgressListener progress) {
         ImportReport report = new ImportReport();
         report.setEventId(eventId);
         report.setIdempotencyKey(idempotencyKey);
+        report.setMode(mode.name());
+
+        long started = System.nanoTime();
+        // With the unique (event_id, natural_key) index every chunk is one atomic
+        // upsert batch; without it, prefetch existing ids to split inserts/updates.
+        // Delta imports diff against a snapshot that carries the ids anyway.
+        DeltaSnapshot snapshot = mode == ImportMode.DELTA ? loadSnapshot(eventId) : null;
+        Map<String, Long> existingIds = snapshot != null || seatRepo.isNaturalKeyUnique() ? null
+                : new ConcurrentHashMap<>(seatRepo.findIdsByNaturalKey(eventId));
+        // The claim is ours: drop results of an earlier attempt under this key
+        rowResultRepo.deleteByKey(idempotencyKey);
+        ImportLanes lanes = new ImportLanes(eventId, idempotencyKey, bucket, existingIds, snapshot, progress);
+        DigestingSource hashed = new DigestingSource(file);
+        try {
+            fileReader.read(originalFilename, contentType, hashed, lanes::add);
+        } catch (IOException ex) {
+            lanes.finish();
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "file_parse_error");
+        }
+        lanes.finish();
+        if (snapshot != null) {
+            // Only after the whole file parsed and every chunk ran: a truncated upload
+            // or a failed chunk must not delete seats
+            if (!lanes.chunkFailed) {
+                removeUnseen(eventId, snapshot);
+            }
+            report.setAdded(snapshot.added.get());
+            report.setChanged(snapshot.changed.get());
+            report.setUnchanged(snapshot.unchanged.get());
+            report.setRemoved(snapshot.removed);
+            report.setRetained(snapshot.retained);
+        }
+        String requestHash = requestHash(originalFilename, eventId, mode, hashed.hex());
         report.setRequestHash(requestHash);
-        report.setTotal(rows.size());
+        int total = lanes.total.get();
+        int failed = lanes.failed.get();
+        report.setRows(new ArrayList<>(lanes.failures.values()));
+        report.setRowsTruncated(failed > lanes.failures.size());
+        report.setTotal(total);
+        report.setSuccess(total - failed);
+        report.setFailed(failed);
+        long elapsedMs = Math.max(1L, (System.nanoTime() - started) / 1_000_000L);
+        log.info("Imported {} rows for eventId={} in {} ms ({} rows/s, {} lanes)", total, eventId,
+                elapsedMs, total * 1000L / elapsedMs, lanes.laneCount());
+        // Full upserts reset seat status and delta imports may delete seats; cached
+        // availability for the event is stale either way
+        seatIndex.invalidateOnCommit(eventId);
+        // Counts and price range may both have changed; one recompute per import
+        summaryDeltas.recompute(eventId);
+
+        // Cache result in idempotency store; the rows are written either way
+        try {
+            idemRepo.complete(idempotencyKey, bucket, requestHash, objectMapper.writeValueAsString(report));
+        } catch (Exception ex) {
+            log.warn("Failed to store import report for key {}: {}", idempotencyKey, ex.getMessage());
+        }
+
+        return report;
+    }
+
+    /**
+     * Keyset page of stored row results for a completed import, or null when the
+     * key has no import.
+     */
+    public List<ImportRowResult> findRowResults(String idempotencyKey, int afterRow, int limit, boolean failedOnly) {
+        if (idemRepo.findByKey(idempotencyKey) == null)
+            return null;
+        return rowResultRepo.findPage(idempotencyKey, Math.max(0, afterRow), limit, failedOnly);
+    }
 
-        int rowNum = 1; // 1-based for report
-        int ok = 0, fail = 0;
-        for (ImportRowRequest r : rows) {
+    /**
+     * Rows of one chunk that resolve to the same seat. Later rows in the file win,
+     * like the per-row upsert they replace.
+     */
+    private static final class PendingSeat {
+        final SeatDto seat = new SeatDto();
+        final List<ImportRowResult> results = new ArrayList<>(1);
+    }
+
+    private record NumberedRow(int rowNumber, ImportRowRequest request) {
+    }
+
+    /**
+     * Shards rows by section into catalog.import.parallelism lanes. Each lane
+     * buffers up to catalog.import.batch-size rows and writes them as one chunk on
+     * the shared worker pool; chunks of the same lane run one after another, so a
+     * seat (whose natural key includes the section) is always written in file
+     * order. A semaphore caps chunks in flight, which blocks the reader instead of
+     * letting buffered rows grow without bound. Row results are persisted per
+     * chunk and only counted here, keeping the lowest-numbered failures for the
+     * inline report.
+     */
+    private final class ImportLanes {
+        private final Long eventId;
+        private final String importKey;
+        private final int bucket;
+        private final Map<String, Long> existingIds;
+        private final DeltaSnapshot snapshot;
+        private final ImportProgressListener progress;
+        private final int chunkSize = Math.max(1, batchSize);
+        private final List<NumberedRow>[] buffers;
+        private final CompletableFuture<?>[] tails;
+        private final Semaphore inFlight;
+        private final int failureCap = Math.max(0, inlineFailures);
+        final AtomicInteger total = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+        final ConcurrentSkipListMap<Integer, ImportRowResult> failures = new ConcurrentSkipListMap<>();
+        // a whole chunk failed, so its rows may not have marked their seats seen
+        volatile boolean chunkFailed;
+        private int nextRow = 1; // 1-based for report
+
+        @SuppressWarnings("unchecked")
+        ImportLanes(Long eventId, String importKey, int bucket, Map<String, Long> existingIds,
+                DeltaSnapshot snapshot, ImportProgressListener progress) {
+            this.eventId = eventId;
+            this.importKey = importKey;
+            this.bucket = bucket;
+            this.existingIds = existingIds;
+            this.snapshot = snapshot;
+            this.progress = progress;
+            int n = Math.max(1, parallelism);
+            this.buffers = new List[n];
+            this.tails = new CompletableFuture<?>[n];
+            for (int i = 0; i < n; i++) {
+                buffers[i] = new ArrayList<>(chunkSize);
+                tails[i] = CompletableFuture.completedFuture(null);
+            }
+            this.inFlight = new Semaphore(n * 2);
+        }
+
+        int laneCount() {
+            return buffers.length;
+        }
+
+        void add(ImportRowRequest r) {
+            String section = r == null ? null : trim(r.section);
+            int lane = Math.floorMod(section == null ? 0 : section.toLowerCase(Locale.ROOT).hashCode(),
+                    buffers.length);
+            buffers[lane].add(new NumberedRow(nextRow++, r));
+            if (buffers[lane].size() >= chunkSize) {
+                submit(lane);
+            }
+        }
+
+        private void submit(int lane) {
+            List<NumberedRow> chunk = buffers[lane];
+            buffers[lane] = new ArrayList<>(chunkSize);
+            inFlight.acquireUninterruptibly();
+            // handleAsync: later chunks still run (and release permits) if one failed
+            tails[lane] = tails[lane].handleAsync((ignored, previousFailure) -> {
+                try {
+                    List<ImportRowResult> results;
+                    try {
+                        results = snapshot == null
+                                ? writeChunk(eventId, chunk, existingIds)
+                                : writeDeltaChunk(eventId, chunk, snapshot);
+                    } catch (RuntimeException ex) {
+                        // Outside the per-row fallback (e.g. no connection): every row of the
+                        // chunk is reported failed, so totals add up and finish() never throws
+                        log.warn("Import chunk of {} rows failed for key={}: {}", chunk.size(), importKey,
+                                ex.getMessage());
+                        results = failedChunk(chunk, "chunk_error: " + shortMsg(ex.getMessage()));
+                        chunkFailed = true;
+                    }
+                    record(results);
+                    int ok = 0;
+                    for (ImportRowResult rr : results) {
+                        if (rr.isSuccess())
+                            ok++;
+                    }
+                    progress.chunkWritten(results.size(), ok);
+                    return null;
+                } finally {
+                    inFlight.release();
+                }
+            }, importPool);
+        }
+
+        private List<ImportRowResult> failedChunk(List<NumberedRow> chunk, String message) {
+            List<ImportRowResult> results = new ArrayList<>(chunk.size());
+            for (NumberedRow nr : chunk) {
+                ImportRowResult rr = new ImportRowResult();
+                rr.setRowNumber(nr.rowNumber());
+                rr.setSuccess(false);
+                rr.setMessage(message);
+                results.add(rr);
+            }
+            return results;
+        }
+
+        private void record(List<ImportRowResult> results) {
+            try {
+                rowResultRepo.batchInsert(importKey, bucket, results);
+            } catch (Exception ex) {
+                // The seats are written; only the drill-down for these rows is lost
+                log.warn("Failed to store import row results for key={}: {}", importKey, ex.getMessage());
+            }
+            total.addAndGet(results.size());
+            for (ImportRowResult rr : results) {
+                if (rr.isSuccess())
+                    continue;
+                failed.incrementAndGet();
+                if (failureCap == 0)
+                    continue;
+                failures.put(rr.getRowNumber(), rr);
+                if (failures.size() > failureCap)
+                    failures.pollLastEntry();
+            }
+        }
+
+        /**
+         * Flushes partial buffers and waits for every lane.
+         */
+        void finish() {
+            for (int lane = 0; lane < buffers.length; lane++) {
+                if (!buffers[lane].isEmpty())
+                    submit(lane);
+            }
+            CompletableFuture.allOf(tails).join();
+            while (failures.size() > failureCap)
+                failures.pollLastEntry();
+        }
+    }
+
+    private List<ImportRowResult> writeChunk(Long eventId, List<NumberedRow> rows, Map<String, Long> existingIds) {
+        List<ImportRowResult> results = new ArrayList<>(rows.size());
+        Map<String, PendingSeat> pending = new LinkedHashMap<>();
+        for (NumberedRow nr : rows) {
+            ImportRowRequest r = nr.request();
             ImportRowResult rr = new ImportRowResult();
-            rr.setRowNumber(rowNum++);
+            rr.setRowNumber(nr.rowNumber());
+            results.add(rr);
 
             String validation = validateRow(r);
             if (validation != null) {
                 rr.setSuccess(false);
                 rr.setMessage(validation);
-                report.getRows().add(rr);
-                fail++;
                 continue;
             }
+            String section = trim(r.section), rowLabel = trim(r.rowLabel), seatNumber = trim(r.seatNumber);
+            String key = SeatJdbcRepository.naturalKey(section, rowLabel, seatNumber).toLowerCase(Locale.ROOT);
+            PendingSeat p = pending.computeIfAbsent(key, k -> new PendingSeat());
+            p.seat.setId(existingIds == null ? null : existingIds.get(key));
+            p.seat.setEventId(eventId);
+            p.seat.setSection(section);
+            p.seat.setRowLabel(rowLabel);
+            p.seat.setSeatNumber(seatNumber);
+            p.seat.setBasePrice(r.basePrice);
+            p.seat.setCurrency(r.currency.trim().toUpperCase());
+            p.seat.setStatus("AVAILABLE");
+            p.results.add(rr);
+        }
+        if (pending.isEmpty())
+            return results;
 
-            try {
-                Long seatId = seatRepo.upsertByNaturalKey(eventId,
-                        trim(r.section), trim(r.rowLabel), trim(r.seatNumber),
-                        r.basePrice, r.currency == null ? null : r.currency.toUpperCase());
+        try {
+            Map<String, Long> ids = writeChunkTx(eventId, pending, existingIds);
+            pending.forEach((key, p) -> p.seat.setId(ids.get(key)));
+            if (existingIds != null)
+                existingIds.putAll(ids);
+        } catch (Exception batchEx) {
+            // Fall back to row-by-row writes to attribute the failure to its rows
+            pending.forEach((key, p) -> writeSingle(eventId, key, p, existingIds));
+        }
+
+        for (PendingSeat p : pending.values()) {
+            for (ImportRowResult rr : p.results) {
+                if (rr.getMessage() != null)
+                    continue; // failed in fallback
                 rr.setSuccess(true);
-                rr.setSeatId(seatId);
+                rr.setSeatId(p.seat.getId());
                 rr.setMessage("upserted");
-                ok++;
-            } catch (Exception ex) {
+            }
+        }
+        return results;
+    }
+
+    /**
+     * One transaction per chunk so a failed batch leaves nothing half-written.
+     * Lanes insert into the same unique index concurrently, so an InnoDB deadlock
+     * or lock timeout is retried a few times before falling back to single rows.
+     */
+    private Map<String, Long> writeChunkTx(Long eventId, Map<String, PendingSeat> pending,
+            Map<String, Long> existingIds) {
+        return inChunkTx(() -> existingIds == null
+                ? upsertChunk(eventId, pending)
+                : insertOrUpdateChunk(pending));
+    }
+
+    private <T> T inChunkTx(Supplier<T> work) {
+        for (int attempt = 1;; attempt++) {
+            try {
+                return chunkTx.execute(status -> work.get());
+            } catch (PessimisticLockingFailureException ex) {
+                if (attempt >= CHUNK_LOCK_RETRIES)
+                    throw ex;
+            }
+        }
+    }
+
+    /**
+     * Atomic path: one batched INSERT ... ON DUPLICATE KEY UPDATE, then one query
+     * to resolve the ids of all seats in the chunk.
+     */
+    private Map<String, Long> upsertChunk(Long eventId, Map<String, PendingSeat> pending) {
+        List<SeatDto> seats = new ArrayList<>(pending.size());
+        pending.values().forEach(p -> seats.add(p.seat));
+        seatRepo.batchUpsertByNaturalKey(seats);
+        return seatRepo.findIdsByNaturalKeys(eventId, seats);
+    }
+
+    /**
+     * Fallback while the unique natural-key index is missing (legacy duplicate
+     * seats): split into an INSERT batch and an UPDATE batch using ids prefetched
+     * for the event.
+     */
+    private Map<String, Long> insertOrUpdateChunk(Map<String, PendingSeat> pending) {
+        Map<String, Long> ids = new HashMap<>();
+        List<String> insertKeys = new ArrayList<>();
+        List<SeatDto> inserts = new ArrayList<>();
+        List<SeatDto> updates = new ArrayList<>();
+        pending.forEach((key, p) -> {
+            if (p.seat.getId() == null) {
+                insertKeys.add(key);
+                inserts.add(p.seat);
+            } else {
+                ids.put(key, p.seat.getId());
+                updates.add(p.seat);
+            }
+        });
+        List<Long> newIds = seatRepo.batchInsert(inserts);
+        seatRepo.batchUpdateImported(updates);
+        for (int i = 0; i < insertKeys.size(); i++) {
+            ids.put(insertKeys.get(i), newIds.get(i));
+        }
+        return ids;
+    }
+
+    /**
+     * Current seats of the event for a delta import, keyed by lower-cased natural
+     * key. Lanes own disjoint keys (sections), so entries are only ever touched by
+     * one worker; the map itself is shared.
+     */
+    private static final class DeltaSnapshot {
+        final Map<String, SnapshotSeat> seats = new ConcurrentHashMap<>();
+        final AtomicInteger added = new AtomicInteger();
+        final AtomicInteger changed = new AtomicInteger();
+        final AtomicInteger unchanged = new AtomicInteger();
+        int removed;
+        int retained;
+    }
+
+    private static final class SnapshotSeat {
+        final long id;
+        long contentHash;
+        volatile boolean seen;
+
+        SnapshotSeat(long id, long contentHash) {
+            this.id = id;
+            this.contentHash = contentHash;
+        }
+    }
+
+    private DeltaSnapshot loadSnapshot(Long eventId) {
+        DeltaSnapshot snapshot = new DeltaSnapshot();
+        // putIfAbsent: with legacy duplicates the lowest id is the seat the file
+        // maps to; the other copies are never removal candidates
+        seatRepo.forEachSnapshotByEventId(eventId, (id, naturalKey, price, currency) -> snapshot.seats
+                .putIfAbsent(naturalKey.toLowerCase(Locale.ROOT), new SnapshotSeat(id, contentHash(price, currency))));
+        return snapshot;
+    }
+
+    /**
+     * 64-bit FNV-1a over the price (at the column's scale of 2) and upper-cased
+     * currency, the only columns an import can change on an existing seat.
+     */
+    static long contentHash(BigDecimal price, String currency) {
+        String normalized = (price == null ? BigDecimal.ZERO : price).setScale(2, RoundingMode.HALF_UP).toPlainString()
+                + '|' + (currency == null ? "" : currency.trim().toUpperCase(Locale.ROOT));
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < normalized.length(); i++) {
+            h ^= normalized.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    /**
+     * Delta counterpart of writeChunk: rows whose price/currency hash matches the
+     * snapshot are reported without a write; added and changed seats are written
+     * in one chunk transaction that never touches seat status.
+     */
+    private List<ImportRowResult> writeDeltaChunk(Long eventId, List<NumberedRow> rows, DeltaSnapshot snapshot) {
+        List<ImportRowResult> results = new ArrayList<>(rows.size());
+        Map<String, PendingSeat> pending = new LinkedHashMap<>();
+        for (NumberedRow nr : rows) {
+            ImportRowRequest r = nr.request();
+            ImportRowResult rr = new ImportRowResult();
+            rr.setRowNumber(nr.rowNumber());
+            results.add(rr);
+            if (r == null) {
                 rr.setSuccess(false);
-                rr.setMessage("db_error: " + shortMsg(ex.getMessage()));
-                fail++;
+                rr.setMessage("row_null");
+                continue;
+            }
+            String section = trim(r.section), rowLabel = trim(r.rowLabel), seatNumber = trim(r.seatNumber);
+            String key = SeatJdbcRepository.naturalKey(section, rowLabel, seatNumber).toLowerCase(Locale.ROOT);
+            // A row that names a seat keeps it, even if the row itself is invalid
+            SnapshotSeat current = snapshot.seats.get(key);
+            if (current != null)
+                current.seen = true;
+
+            String validation = validateRow(r);
+            if (validation != null) {
+                rr.setSuccess(false);
+                rr.setMessage(validation);
+                continue;
             }
-            report.getRows().add(rr);
+            PendingSeat p = pending.computeIfAbsent(key, k -> new PendingSeat());
+            p.seat.setEventId(eventId);
+            p.seat.setSection(section);
+            p.seat.setRowLabel(rowLabel);
+            p.seat.setSeatNumber(seatNumber);
+            p.seat.setBasePrice(r.basePrice);
+            p.seat.setCurrency(r.currency.trim().toUpperCase());
+            p.seat.setStatus("AVAILABLE"); // only used when the seat is inserted
+            p.results.add(rr);
         }
-        report.setSuccess(ok);
-        report.setFailed(fail);
 
-        // Cache result in idempotency store
+        Map<String, PendingSeat> writes = new LinkedHashMap<>();
+        pending.forEach((key, p) -> {
+            SnapshotSeat current = snapshot.seats.get(key);
+            if (current != null) {
+                p.seat.setId(current.id);
+                if (current.contentHash == contentHash(p.seat.getBasePrice(), p.seat.getCurrency())) {
+                    snapshot.unchanged.incrementAndGet();
+                    complete(p, "unchanged");
+                    return;
+                }
+            }
+            writes.put(key, p);
+        });
+        if (writes.isEmpty())
+            return results;
+
         try {
-            String json = objectMapper.writeValueAsString(report);
-            if (cached == null) {
-                idemRepo.insert(idempotencyKey, requestHash, json);
+            inChunkTx(() -> writeDelta(eventId, writes, snapshot));
+        } catch (Exception batchEx) {
+            // Retry seat by seat to attribute the failure to its rows
+            writes.forEach((key, p) -> {
+                try {
+                    inChunkTx(() -> writeDelta(eventId, Map.of(key, p), snapshot));
+                } catch (Exception ex) {
+                    for (ImportRowResult rr : p.results) {
+                        rr.setSuccess(false);
+                        rr.setMessage("db_error: " + shortMsg(ex.getMessage()));
+                    }
+                }
+            });
+        }
+
+        writes.forEach((key, p) -> {
+            if (p.results.get(0).getMessage() != null)
+                return; // failed in fallback
+            long hash = contentHash(p.seat.getBasePrice(), p.seat.getCurrency());
+            SnapshotSeat current = snapshot.seats.get(key);
+            if (current == null) {
+                SnapshotSeat added = new SnapshotSeat(p.seat.getId(), hash);
+                added.seen = true;
+                snapshot.seats.put(key, added);
+                snapshot.added.incrementAndGet();
+                complete(p, "added");
             } else {
-                idemRepo.updateResponse(idempotencyKey, json);
+                current.contentHash = hash;
+                snapshot.changed.incrementAndGet();
+                complete(p, "changed");
             }
-        } catch (Exception ex) {
-            // non-fatal
+        });
+        return results;
+    }
+
+    /**
+     * Writes added and changed seats of one delta chunk and fills in the ids of
+     * added seats. Existing seats only get price/currency.
+     */
+    private Void writeDelta(Long eventId, Map<String, PendingSeat> writes, DeltaSnapshot snapshot) {
+        List<SeatDto> added = new ArrayList<>();
+        List<SeatDto> changed = new ArrayList<>();
+        writes.forEach((key, p) -> {
+            if (snapshot.seats.containsKey(key)) {
+                changed.add(p.seat);
+            } else {
+                p.seat.setId(null); // may be left over from a rolled-back attempt
+                added.add(p.seat);
+            }
+        });
+        if (seatRepo.isNaturalKeyUnique()) {
+            List<SeatDto> all = new ArrayList<>(added);
+            all.addAll(changed);
+            seatRepo.batchUpsertPriceByNaturalKey(all);
+            Map<String, Long> ids = seatRepo.findIdsByNaturalKeys(eventId, added);
+            for (SeatDto seat : added) {
+                seat.setId(ids.get(SeatJdbcRepository
+                        .naturalKey(seat.getSection(), seat.getRowLabel(), seat.getSeatNumber())
+                        .toLowerCase(Locale.ROOT)));
+            }
+        } else {
+            List<Long> ids = seatRepo.batchInsert(added);
+            for (int i = 0; i < added.size(); i++) {
+                added.get(i).setId(ids.get(i));
+            }
+            seatRepo.batchUpdatePrice(changed);
         }
+        return null;
+    }
 
-        return report;
+    private void complete(PendingSeat p, String message) {
+        for (ImportRowResult rr : p.results) {
+            rr.setSuccess(true);
+            rr.setSeatId(p.seat.getId());
+            rr.setMessage(message);
+        }
+    }
+
+    /**
+     * Deletes snapshot seats no row of the file named, in chunks. Only AVAILABLE
+     * seats go; HELD and SOLD ones are counted as retained.
+     */
+    private void removeUnseen(Long eventId, DeltaSnapshot snapshot) {
+        List<Long> unseen = new ArrayList<>();
+        for (SnapshotSeat seat : snapshot.seats.values()) {
+            if (!seat.seen)
+                unseen.add(seat.id);
+        }
+        int limit = Math.max(1, batchSize);
+        int removed = 0;
+        for (int from = 0; from < unseen.size(); from += limit) {
+            List<Long> chunk = unseen.subList(from, Math.min(unseen.size(), from + limit));
+            removed += inChunkTx(() -> seatRepo.deleteAvailableByIds(eventId, chunk));
+        }
+        snapshot.removed = removed;
+        snapshot.retained = unseen.size() - removed;
+    }
+
+    private void writeSingle(Long eventId, String key, PendingSeat p, Map<String, Long> existingIds) {
+        try {
+            Long id = seatRepo.upsertByNaturalKey(eventId, p.seat.getSection(), p.seat.getRowLabel(),
+                    p.seat.getSeatNumber(), p.seat.getBasePrice(), p.seat.getCurrency());
+            p.seat.setId(id);
+            if (existingIds != null)
+                existingIds.put(key, id);
+        } catch (Exception ex) {
+            for (ImportRowResult rr : p.results) {
+                rr.setSuccess(false);
+                rr.setMessage("db_error: " + shortMsg(ex.getMessage()));
+            }
+        }
     }
 
     private String validateRow(ImportRowRequest r) {
@@ -153,154 +766,83 @@ public class InventoryImportService {
         return s == null ? null : s.trim();
     }
 
-    private List<ImportRowRequest> parseFile(String filename, String contentType, byte[] bytes) {
-        String lowerName = filename == null ? "" : filename.toLowerCase();
-        String ct = contentType == null ? "" : contentType.toLowerCase();
-        try {
-            if (lowerName.endsWith(".csv") || ct.contains("text/csv")) {
-                try (InputStream in = new BufferedInputStream(new ByteArrayInputStream(bytes))) {
-                    return parseCsv(in);
-                }
-            } else if (lowerName.endsWith(".xlsx")
-                    || ct.contains("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")) {
-                try (InputStream in = new BufferedInputStream(new ByteArrayInputStream(bytes))) {
-                    return parseXlsx(in);
-                }
-            } else {
-                // Fallback attempt CSV
-                try (InputStream in = new BufferedInputStream(new ByteArrayInputStream(bytes))) {
-                    return parseCsv(in);
-                }
-            }
-        } catch (IOException ex) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "file_parse_error");
-        }
+    private String shortMsg(String msg) {
+        if (msg == null)
+            return null;
+        String t = msg.replaceAll("\\s+", " ").trim();
+        return t.length() > 180 ? t.substring(0, 180) : t;
     }
 
-    private List<ImportRowRequest> parseCsv(InputStream in) throws IOException {
-        CSVParser parser = CSVParser.parse(in, StandardCharsets.UTF_8, CSVFormat.DEFAULT.builder()
-                .setHeader()
-                .setSkipHeaderRecord(true)
-                .setIgnoreEmptyLines(true)
-                .setTrim(true)
-                .build());
-        List<ImportRowRequest> rows = new ArrayList<>();
-        for (CSVRecord rec : parser) {
-            ImportRowRequest r = new ImportRowRequest();
-            r.section = get(rec, "section");
-            r.rowLabel = get(rec, "rowLabel");
-            r.seatNumber = get(rec, "seatNumber");
-            r.currency = get(rec, "currency");
-            r.basePrice = parseDecimal(get(rec, "basePrice"));
-            rows.add(r);
-        }
-        return rows;
+    // FULL keeps the original format so existing idempotency rows still match
+    private String requestHash(String originalFilename, Long eventId, ImportMode mode, String fileHash) {
+        return sha256Hex((originalFilename == null ? "" : originalFilename) + "|" + eventId + "|"
+                + (mode == ImportMode.FULL ? "" : mode.name() + "|") + fileHash);
     }
 
-    private String get(CSVRecord rec, String name) {
-        try {
-            return rec.isMapped(name) ? emptyToNull(rec.get(name)) : null;
-        } catch (IllegalArgumentException ex) {
-            return null;
-        }
+    private String sha256Hex(String s) {
+        return toHex(newSha256().digest(s.getBytes(StandardCharsets.UTF_8)));
     }
 
-    private String emptyToNull(String s) {
-        if (s == null)
-            return null;
-        String t = s.trim();
-        return t.isEmpty() ? null : t;
-    }
-
-    private List<ImportRowRequest> parseXlsx(InputStream in) throws IOException {
-        try (XSSFWorkbook wb = new XSSFWorkbook(in)) {
-            XSSFSheet sheet = wb.getNumberOfSheets() > 0 ? wb.getSheetAt(0) : null;
-            if (sheet == null)
-                return List.of();
-            Iterator<Row> it = sheet.iterator();
-            if (!it.hasNext())
-                return List.of();
-            Row header = it.next();
-            int colSection = findCol(header, "section");
-            int colRow = findCol(header, "rowLabel");
-            int colSeat = findCol(header, "seatNumber");
-            int colPrice = findCol(header, "basePrice");
-            int colCur = findCol(header, "currency");
-            List<ImportRowRequest> rows = new ArrayList<>();
-            while (it.hasNext()) {
-                Row row = it.next();
-                ImportRowRequest r = new ImportRowRequest();
-                r.section = cellStr(row, colSection);
-                r.rowLabel = cellStr(row, colRow);
-                r.seatNumber = cellStr(row, colSeat);
-                r.currency = cellStr(row, colCur);
-                r.basePrice = parseDecimal(cellStr(row, colPrice));
-                rows.add(r);
-            }
-            return rows;
+    // Hash-only pass for replays; reads in fixed-size chunks
+    private String sha256Hex(InputStreamSource file) {
+        DigestingSource hashed = new DigestingSource(file);
+        try (InputStream in = hashed.getInputStream()) {
+            // close() drains the stream through the digest
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "file_read_error");
         }
+        return hashed.hex();
     }
 
-    private int findCol(Row header, String name) {
-        String target = name.toLowerCase();
-        for (int i = 0; i < header.getLastCellNum(); i++) {
-            Cell c = header.getCell(i);
-            if (c == null)
-                continue;
-            String v = c.getStringCellValue();
-            if (v != null && v.trim().toLowerCase().equals(target))
-                return i;
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
-        return -1;
     }
 
-    private String cellStr(Row row, int col) {
-        if (col < 0)
-            return null;
-        Cell c = row.getCell(col);
-        if (c == null)
-            return null;
-        if (c.getCellType() == CellType.STRING)
-            return emptyToNull(c.getStringCellValue());
-        if (c.getCellType() == CellType.NUMERIC)
-            return String.valueOf(c.getNumericCellValue());
-        if (c.getCellType() == CellType.BOOLEAN)
-            return c.getBooleanCellValue() ? "true" : "false";
-        return null;
-    }
+    /**
+     * Hands the upload to the parser through a SHA-256 DigestInputStream, so the
+     * file hash falls out of the parse pass. Closing the stream drains whatever
+     * the parser left unread (e.g. trailing blank lines), so the digest always
+     * covers the whole file.
+     */
+    private static final class DigestingSource implements InputStreamSource {
+        private final InputStreamSource delegate;
+        private final MessageDigest digest = newSha256();
+        private boolean opened;
 
-    private BigDecimal parseDecimal(String s) {
-        if (s == null || s.isBlank())
-            return null;
-        try {
-            return new BigDecimal(s.trim());
-        } catch (NumberFormatException ex) {
-            return null;
+        DigestingSource(InputStreamSource delegate) {
+            this.delegate = delegate;
         }
-    }
 
-    private String shortMsg(String msg) {
-        if (msg == null)
-            return null;
-        String t = msg.replaceAll("\\s+", " ").trim();
-        return t.length() > 180 ? t.substring(0, 180) : t;
-    }
-
-    private String sha256Hex(byte[] data) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] dig = md.digest(data);
-            return toHex(dig);
-        } catch (NoSuchAlgorithmException e) {
-            throw new IllegalStateException(e);
+        @Override
+        public InputStream getInputStream() throws IOException {
+            if (opened)
+                throw new IllegalStateException("upload is read in a single pass");
+            opened = true;
+            return new DigestInputStream(delegate.getInputStream(), digest) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        byte[] buf = new byte[64 * 1024];
+                        while (read(buf, 0, buf.length) >= 0) {
+                            // digest updated by read
+                        }
+                    } finally {
+                        super.close();
+                    }
+                }
+            };
         }
-    }
 
-    private String sha256Hex(String s) {
-        return sha256Hex(s.getBytes(StandardCharsets.UTF_8));
+        String hex() {
+            return toHex(digest.digest());
+        }
     }
 
-    private String toHex(byte[] bytes) {
+    private static String toHex(byte[] bytes) {
         StringBuilder sb = new StringBuilder(bytes.length * 2);
         for (byte b : bytes) {
             sb.append(Character.forDigit((b >> 4) & 0xF, 16));
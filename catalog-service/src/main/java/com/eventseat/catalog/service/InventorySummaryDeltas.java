@@ -0,0 +1,105 @@
+package com.eventseat.catalog.service;
+
+import com.eventseat.catalog.repository.InventorySummaryJdbcRepository;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Buffers event_inventory_summary count deltas of committed hold writes and
+ * applies them as one UPDATE per event every catalog.inventory-summary.flush-ms,
+ * outside any hold transaction. Hold, release and expiry therefore never wait
+ * on (or lock) the per-event summary row; search counts lag by at most one
+ * flush. Rolled-back transactions add nothing. A delta lost to a failed flush
+ * or a crash is repaired by InventorySummaryRebuildJob.
+ *
+ * A delta whose commit lands between the discard in recompute and the
+ * recount's read is still counted twice; so is order-service's sold-seat
+ * delta (buffered in that service, out of reach here) when a recompute runs
+ * between the sale's commit and its flush. The counters floor at 0, so such
+ * drift shows as a low held_count and a high sold_count until the next
+ * rebuild recounts the event.
+ */
+@Component
+public class InventorySummaryDeltas {
+
+    private static final Logger log = LoggerFactory.getLogger(InventorySummaryDeltas.class);
+
+    private record Delta(long available, long held, long sold) {
+        Delta plus(Delta o) {
+            return new Delta(available + o.available, held + o.held, sold + o.sold);
+        }
+    }
+
+    private final InventorySummaryJdbcRepository summaryRepo;
+    private final ConcurrentHashMap<Long, Delta> pending = new ConcurrentHashMap<>();
+
+    public InventorySummaryDeltas(InventorySummaryJdbcRepository summaryRepo) {
+        this.summaryRepo = summaryRepo;
+    }
+
+    /**
+     * Queues the deltas once the current transaction commits (immediately when
+     * there is none).
+     */
+    public void addOnCommit(Long eventId, long available, long held, long sold) {
+        if (eventId == null || (available == 0 && held == 0 && sold == 0))
+            return;
+        Delta delta = new Delta(available, held, sold);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            pending.merge(eventId, delta, Delta::plus);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                pending.merge(eventId, delta, Delta::plus);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.inventory-summary.flush-ms:1000}", initialDelay = 1_000L)
+    public void flush() {
+        for (Long eventId : pending.keySet()) {
+            flush(eventId);
+        }
+    }
+
+    /**
+     * Recounts one event from seats (see InventorySummaryJdbcRepository) after
+     * discarding its buffered deltas: they belong to committed writes the
+     * recount already sees, and applying them afterwards would count them
+     * twice. Every recompute in this service goes through here.
+     */
+    public void recompute(Long eventId) {
+        if (eventId == null)
+            return;
+        pending.remove(eventId);
+        summaryRepo.recompute(eventId);
+    }
+
+    /**
+     * Applies one event's buffered deltas now.
+     */
+    public void flush(Long eventId) {
+        // remove is atomic: deltas merged after it start a new entry
+        Delta delta = pending.remove(eventId);
+        if (delta == null)
+            return;
+        try {
+            summaryRepo.applyDelta(eventId, delta.available(), delta.held(), delta.sold());
+        } catch (Exception ex) {
+            log.warn("Failed to apply inventory summary delta for eventId={}: {}", eventId, ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+}
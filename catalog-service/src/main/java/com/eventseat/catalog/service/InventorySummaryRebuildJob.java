@@ -0,0 +1,56 @@
+package com.eventseat.catalog.service;
+
+import com.eventseat.catalog.repository.InventorySummaryJdbcRepository;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically recomputes event_inventory_summary from the seats table to
+ * repair drift in the incrementally maintained counters (e.g. writes that
+ * bypassed the service, failed or lost buffered deltas). Events are walked by id in batches and
+ * each event is recomputed in its own short statement.
+ */
+@Component
+public class InventorySummaryRebuildJob {
+
+    private static final Logger log = LoggerFactory.getLogger(InventorySummaryRebuildJob.class);
+
+    private final InventorySummaryJdbcRepository summaryRepo;
+    private final InventorySummaryDeltas summaryDeltas;
+
+    @Value("${catalog.inventory-summary.rebuild-batch:500}")
+    private int batchSize;
+
+    public InventorySummaryRebuildJob(InventorySummaryJdbcRepository summaryRepo,
+            InventorySummaryDeltas summaryDeltas) {
+        this.summaryRepo = summaryRepo;
+        this.summaryDeltas = summaryDeltas;
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.inventory-summary.rebuild-ms:600000}", initialDelay = 60_000L)
+    public void rebuild() {
+        int limit = Math.max(1, batchSize);
+        long afterId = 0L;
+        int events = 0;
+        while (true) {
+            List<Long> ids = summaryRepo.findEventIdsAfter(afterId, limit);
+            for (Long eventId : ids) {
+                try {
+                    summaryDeltas.recompute(eventId);
+                    events++;
+                } catch (Exception ex) {
+                    log.warn("Failed to rebuild inventory summary for eventId={}: {}", eventId, ex.getMessage());
+                }
+            }
+            if (ids.size() < limit)
+                break;
+            afterId = ids.get(ids.size() - 1);
+        }
+        int orphans = summaryRepo.deleteOrphans();
+        log.info("Rebuilt inventory summary for {} events ({} orphan rows removed)", events, orphans);
+    }
+}
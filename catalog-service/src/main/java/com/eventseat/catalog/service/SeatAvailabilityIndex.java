@@ -0,0 +1,278 @@
+package com.eventseat.catalog.service;
+
+import com.eventseat.catalog.repository.SeatJdbcRepository;
+import com.eventseat.catalog.repository.SeatOutboxJdbcRepository.SeatChange;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-memory seat state map (AVAILABLE/HELD/SOLD) per event, loaded lazily from
+ * the seats table.
+ * Each event is kept as a sorted long[] of seat ids plus a parallel byte[] of
+ * states, so a 50k-seat event costs well under 1 MB.
+ *
+ * The map is only used to reject holds that cannot succeed before any SQL is
+ * issued; MySQL stays the source of truth. Writes go to the database first and
+ * are applied here after the owning transaction commits. Seats that are not in
+ * the snapshot (e.g. created after it was loaded) are always left to the
+ * database to decide. Changes made by other writers (order-service selling
+ * seats) arrive through the seat outbox relay.
+ *
+ * Snapshots are loaded outside the map's locks and published only if no
+ * change for the event (or another event on the same version stripe) was
+ * applied while loading, since such a change may be missing from the rows
+ * read.
+ */
+@Component
+public class SeatAvailabilityIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatAvailabilityIndex.class);
+
+    static final byte AVAILABLE = 0;
+    static final byte HELD = 1;
+    static final byte SOLD = 2;
+
+    private static final int VERSION_STRIPES = 64;
+
+    private final SeatJdbcRepository seatRepo;
+    private final ConcurrentHashMap<Long, EventSeats> events = new ConcurrentHashMap<>();
+    // bumped before every change is applied; a load that saw a bump is not published
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    @Value("${catalog.seat-index.enabled:true}")
+    private boolean enabled;
+
+    // Snapshots older than this are reloaded on next access (fallback for writes
+    // the outbox relay missed or has not delivered yet)
+    @Value("${catalog.seat-index.refresh-seconds:30}")
+    private long refreshSeconds;
+
+    @Value("${catalog.seat-index.max-events:256}")
+    private int maxEvents;
+
+    public SeatAvailabilityIndex(SeatJdbcRepository seatRepo) {
+        this.seatRepo = seatRepo;
+    }
+
+    /**
+     * Returns per-seat diagnostics for every requested seat the snapshot knows to
+     * be HELD or SOLD. An empty map means the request may succeed and must be
+     * verified against the database.
+     */
+    public Map<Long, Object> findUnavailable(Long eventId, List<Long> seatIds) {
+        if (!enabled || eventId == null || seatIds == null || seatIds.isEmpty())
+            return Map.of();
+        EventSeats seats = snapshot(eventId);
+        Map<Long, Object> diag = new HashMap<>();
+        synchronized (seats) {
+            for (Long sid : seatIds) {
+                if (sid == null)
+                    continue;
+                int i = Arrays.binarySearch(seats.ids, 0, seats.size, sid);
+                if (i < 0 || seats.states[i] == AVAILABLE)
+                    continue;
+                Map<String, Object> m = new HashMap<>();
+                m.put("reason", "not_available");
+                m.put("status", name(seats.states[i]));
+                diag.put(sid, m);
+            }
+        }
+        return diag;
+    }
+
+    public void markHeldOnCommit(Long eventId, List<Long> seatIds) {
+        onCommit(() -> apply(eventId, seatIds, HELD));
+    }
+
+    public void markAvailableOnCommit(Long eventId, List<Long> seatIds) {
+        onCommit(() -> apply(eventId, seatIds, AVAILABLE));
+    }
+
+    /**
+     * Applies statuses read from the database (seatId -> AVAILABLE/HELD/SOLD) to
+     * an already loaded snapshot.
+     */
+    public void applyStatuses(Long eventId, Map<Long, String> statuses) {
+        if (!enabled || eventId == null || statuses == null || statuses.isEmpty())
+            return;
+        bumpVersion(eventId);
+        events.computeIfPresent(eventId, (k, seats) -> {
+            synchronized (seats) {
+                statuses.forEach((sid, status) -> seats.set(sid, parse(status)));
+            }
+            return seats;
+        });
+    }
+
+    /**
+     * Applies relayed seat status changes to loaded snapshots; changes are in
+     * commit order, so the last one per seat wins.
+     */
+    @EventListener
+    public void onSeatChanges(SeatChangeBatch batch) {
+        Map<Long, Map<Long, String>> byEvent = new HashMap<>();
+        for (SeatChange c : batch.changes()) {
+            byEvent.computeIfAbsent(c.eventId(), k -> new HashMap<>()).put(c.seatId(), c.status());
+        }
+        byEvent.forEach(this::applyStatuses);
+    }
+
+    /**
+     * Drops the snapshot for an event once the current transaction commits; used
+     * when seats are created, deleted or re-imported.
+     */
+    public void invalidateOnCommit(Long eventId) {
+        if (eventId == null)
+            return;
+        onCommit(() -> {
+            bumpVersion(eventId);
+            events.remove(eventId);
+        });
+    }
+
+    private void apply(Long eventId, List<Long> seatIds, byte state) {
+        if (!enabled || eventId == null || seatIds == null)
+            return;
+        // The bump makes a load in flight discard its rows; computeIfPresent
+        // serializes with the publish of one that already finished, so a
+        // committed change is never lost behind an older snapshot
+        bumpVersion(eventId);
+        events.computeIfPresent(eventId, (k, seats) -> {
+            synchronized (seats) {
+                for (Long sid : seatIds) {
+                    if (sid != null)
+                        seats.set(sid, state);
+                }
+            }
+            return seats;
+        });
+    }
+
+    private EventSeats snapshot(Long eventId) {
+        long now = System.nanoTime();
+        long maxAge = refreshSeconds * 1_000_000_000L;
+        EventSeats cur = events.get(eventId);
+        if (cur != null && now - cur.loadedAt < maxAge) {
+            cur.lastAccess = now;
+            return cur;
+        }
+        // JDBC runs outside compute, which would block every writer of the bin
+        int stripe = versionStripe(eventId);
+        long version = versions.get(stripe);
+        EventSeats loaded = load(eventId);
+        EventSeats seats = events.compute(eventId, (k, existing) -> {
+            if (existing != null && existing != cur)
+                return existing; // published by a concurrent load
+            return versions.get(stripe) == version ? loaded : existing;
+        });
+        if (seats == null || seats == cur) {
+            // a change raced the load: answer from nothing, the database decides
+            return new EventSeats();
+        }
+        seats.lastAccess = now;
+        if (events.size() > Math.max(1, maxEvents)) {
+            evictLeastRecentlyUsed(eventId);
+        }
+        return seats;
+    }
+
+    private void bumpVersion(Long eventId) {
+        versions.incrementAndGet(versionStripe(eventId));
+    }
+
+    private static int versionStripe(Long eventId) {
+        return Long.hashCode(eventId) & (VERSION_STRIPES - 1);
+    }
+
+    private EventSeats load(Long eventId) {
+        long started = System.nanoTime();
+        EventSeats seats = new EventSeats();
+        seatRepo.forEachIdAndStatusByEventId(eventId, (id, status) -> seats.append(id, parse(status)));
+        seats.loadedAt = System.nanoTime();
+        log.debug("Loaded seat index for eventId={} ({} seats) in {} ms", eventId, seats.size,
+                (seats.loadedAt - started) / 1_000_000);
+        return seats;
+    }
+
+    private void evictLeastRecentlyUsed(Long keep) {
+        Long victim = null;
+        long oldest = Long.MAX_VALUE;
+        for (Map.Entry<Long, EventSeats> e : events.entrySet()) {
+            if (!e.getKey().equals(keep) && e.getValue().lastAccess < oldest) {
+                oldest = e.getValue().lastAccess;
+                victim = e.getKey();
+            }
+        }
+        if (victim != null) {
+            events.remove(victim);
+        }
+    }
+
+    private void onCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static byte parse(String status) {
+        if ("HELD".equalsIgnoreCase(status))
+            return HELD;
+        if ("SOLD".equalsIgnoreCase(status))
+            return SOLD;
+        return AVAILABLE;
+    }
+
+    private static String name(byte state) {
+        return switch (state) {
+            case HELD -> "HELD";
+            case SOLD -> "SOLD";
+            default -> "AVAILABLE";
+        };
+    }
+
+    /**
+     * Seat ids are appended in ascending order by the loader so lookups can use
+     * binary search.
+     */
+    private static final class EventSeats {
+        long[] ids = new long[1024];
+        byte[] states = new byte[1024];
+        int size;
+        long loadedAt;
+        volatile long lastAccess;
+
+        void append(long id, byte state) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                states = Arrays.copyOf(states, size * 2);
+            }
+            ids[size] = id;
+            states[size] = state;
+            size++;
+        }
+
+        void set(long id, byte state) {
+            int i = Arrays.binarySearch(ids, 0, size, id);
+            if (i >= 0)
+                states[i] = state;
+        }
+    }
+}
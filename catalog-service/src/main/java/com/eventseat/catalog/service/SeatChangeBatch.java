@@ -0,0 +1,12 @@
+package com.eventseat.catalog.service;
+
+import com.eventseat.catalog.repository.SeatOutboxJdbcRepository.SeatChange;
+import java.util.List;
+
+/**
+ * Published by SeatOutboxRelay for each batch of committed seat status
+ * changes, in outbox id order. lastId is the relay cursor after the batch; a
+ * batch of changes that committed behind the cursor carries ids below it.
+ */
+public record SeatChangeBatch(List<SeatChange> changes, long lastId) {
+}
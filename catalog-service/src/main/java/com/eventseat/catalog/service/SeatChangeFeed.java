@@ -0,0 +1,209 @@
+package com.eventseat.catalog.service;
+
+import com.eventseat.catalog.repository.SeatOutboxJdbcRepository;
+import com.eventseat.catalog.repository.SeatOutboxJdbcRepository.SeatChange;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Server-sent event feed of seat status changes. Each relayed batch goes out
+ * as one "seat-changes" event whose id is the relay cursor after it, so a
+ * client reconnecting with Last-Event-ID (or afterId) is first sent the
+ * changes after that id while they are still in the outbox. Live batches
+ * relayed during the replay are held in the subscriber's queue and sent after
+ * it, minus those the replay already covered, so the stream stays in id
+ * order. Changes that committed behind the cursor are sent live only, not
+ * replayed. If more than catalog.outbox.sse.max-replay changes were missed a
+ * "reset" event is sent instead and the client should drop whatever it
+ * derived from the feed.
+ *
+ * Live batches are queued per subscriber and written on virtual threads, so a
+ * slow client never holds up the relay (or the other subscribers); one that
+ * falls catalog.outbox.sse.max-queued batches behind is disconnected.
+ */
+@Component
+public class SeatChangeFeed {
+
+    private final SeatOutboxJdbcRepository outboxRepo;
+    private final SeatOutboxRelay relay;
+    private final CopyOnWriteArrayList<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${catalog.outbox.sse.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${catalog.outbox.sse.max-subscribers:100}")
+    private int maxSubscribers;
+
+    @Value("${catalog.outbox.sse.max-replay:10000}")
+    private int maxReplay;
+
+    @Value("${catalog.outbox.sse.max-queued:1000}")
+    private int maxQueued;
+
+    @Value("${catalog.outbox.batch-size:500}")
+    private int batchSize;
+
+    public SeatChangeFeed(SeatOutboxJdbcRepository outboxRepo, SeatOutboxRelay relay) {
+        this.outboxRepo = outboxRepo;
+        this.relay = relay;
+    }
+
+    public SseEmitter subscribe(Long afterId) {
+        if (subscribers.size() >= Math.max(1, maxSubscribers)) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "too_many_subscribers");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(ex -> subscribers.remove(subscriber));
+        // Register before reading the cursor: every batch relayed past upTo is queued
+        subscriber.replaying = afterId != null;
+        subscribers.add(subscriber);
+        long upTo = relay.cursor();
+        if (afterId != null) {
+            if (upTo >= 0 && afterId < upTo) {
+                replay(subscriber, afterId, upTo);
+            }
+            subscriber.replayed(upTo);
+        }
+        return emitter;
+    }
+
+    private void replay(Subscriber subscriber, long afterId, long upTo) {
+        SseEmitter emitter = subscriber.emitter;
+        int limit = Math.max(1, batchSize);
+        long cursor = afterId;
+        int sent = 0;
+        try {
+            if (afterId < outboxRepo.minId() - 1) {
+                // the oldest missed changes were already purged
+                reset(emitter);
+                return;
+            }
+            while (cursor < upTo) {
+                List<SeatChange> page = outboxRepo.findAfter(cursor, limit);
+                List<SeatChange> batch = page.stream().filter(c -> c.id() <= upTo).toList();
+                if (batch.isEmpty())
+                    return;
+                sent += batch.size();
+                if (sent > Math.max(0, maxReplay)) {
+                    reset(emitter);
+                    return;
+                }
+                long lastId = batch.get(batch.size() - 1).id();
+                send(emitter, new SeatChangeBatch(batch, lastId));
+                cursor = lastId;
+                if (page.size() < limit)
+                    return;
+            }
+        } catch (IOException ex) {
+            subscribers.remove(subscriber);
+        }
+    }
+
+    @EventListener
+    public void onSeatChanges(SeatChangeBatch batch) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(batch);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        senders.shutdownNow();
+    }
+
+    /**
+     * Per-client queue; at most one sender drains it at a time, so batches
+     * reach the client in relay order. Nothing is drained while a replay is
+     * being written.
+     */
+    private final class Subscriber {
+        final SseEmitter emitter;
+        final ConcurrentLinkedQueue<SeatChangeBatch> queue = new ConcurrentLinkedQueue<>();
+        final AtomicInteger queued = new AtomicInteger();
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile boolean replaying;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(SeatChangeBatch batch) {
+            if (queued.incrementAndGet() > Math.max(1, maxQueued)) {
+                // too far behind: disconnect; it can resume with Last-Event-ID
+                subscribers.remove(this);
+                emitter.complete();
+                return;
+            }
+            queue.add(batch);
+            if (!replaying && draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        void replayed(long upTo) {
+            // nothing drains yet: drop what the replay already sent
+            queue.removeIf(b -> {
+                if (b.lastId() > upTo)
+                    return false;
+                queued.decrementAndGet();
+                return true;
+            });
+            replaying = false;
+            // batches offered during the replay
+            if (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                SeatChangeBatch batch;
+                while ((batch = queue.poll()) != null) {
+                    queued.decrementAndGet();
+                    send(emitter, batch);
+                }
+            } catch (IOException | IllegalStateException ex) {
+                // client went away; the container completes the emitter
+                subscribers.remove(this);
+                queue.clear();
+            } finally {
+                draining.set(false);
+            }
+            // a batch offered after the last poll but before the flag was cleared
+            if (!queue.isEmpty() && subscribers.contains(this) && draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+    }
+
+    private void send(SseEmitter emitter, SeatChangeBatch batch) throws IOException {
+        emitter.send(SseEmitter.event()
+                .id(String.valueOf(batch.lastId()))
+                .name("seat-changes")
+                .data(batch.changes()));
+    }
+
+    private void reset(SseEmitter emitter) throws IOException {
+        emitter.send(SseEmitter.event()
+                .id(String.valueOf(relay.cursor()))
+                .name("reset")
+                .data("replay_unavailable"));
+    }
+}
@@ -0,0 +1,181 @@
+package com.eventseat.catalog.service;
+
+import com.eventseat.catalog.repository.SeatOutboxJdbcRepository;
+import com.eventseat.catalog.repository.SeatOutboxJdbcRepository.SeatChange;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Relays seat_outbox rows to in-process subscribers as SeatChangeBatch events
+ * (SeatAvailabilityIndex, SeatChangeFeed). Every catalog instance relays every
+ * change to its own subscribers, starting from the newest row at startup.
+ *
+ * Outbox ids are assigned at insert but become visible at commit, so a lower
+ * id can appear after a higher one, however long its transaction waited on
+ * locks. The cursor therefore never waits: ids it passes without seeing are
+ * remembered as gaps and re-queried on every poll until they show up
+ * (relayed late) or catalog.outbox.gap-timeout-ms passes, after which they
+ * are taken to be rolled-back or skipped auto-increment ids. Rows are deleted
+ * after catalog.outbox.retention-minutes.
+ *
+ * Polls run every catalog.outbox.poll-ms on a thread of their own rather than
+ * Spring's shared scheduler thread, so neither delays the other's jobs. The
+ * gap set is only touched by that thread.
+ */
+@Component
+public class SeatOutboxRelay implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatOutboxRelay.class);
+
+    // upper bound of batches relayed per poll, so a backlog cannot pin the relay thread
+    private static final int MAX_BATCHES_PER_POLL = 20;
+
+    private final SeatOutboxJdbcRepository outboxRepo;
+    private final ApplicationEventPublisher events;
+    // unresolved gap id -> System.nanoTime() deadline, oldest first
+    private final LinkedHashMap<Long, Long> gaps = new LinkedHashMap<>();
+    private volatile long cursor = -1L;
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "seat-outbox-relay");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @Value("${catalog.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${catalog.outbox.poll-ms:200}")
+    private long pollMs;
+
+    @Value("${catalog.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${catalog.outbox.gap-timeout-ms:300000}")
+    private long gapTimeoutMs;
+
+    @Value("${catalog.outbox.max-gaps:10000}")
+    private int maxGaps;
+
+    @Value("${catalog.outbox.retention-minutes:60}")
+    private long retentionMinutes;
+
+    @Value("${catalog.outbox.purge-batch:1000}")
+    private int purgeBatch;
+
+    public SeatOutboxRelay(SeatOutboxJdbcRepository outboxRepo, ApplicationEventPublisher events) {
+        this.outboxRepo = outboxRepo;
+        this.events = events;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled)
+            return;
+        cursor = outboxRepo.maxId();
+        log.info("Seat outbox relay started after id {}", cursor);
+        poller.scheduleWithFixedDelay(this::relay, 1_000L, Math.max(1L, pollMs), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        poller.shutdownNow();
+    }
+
+    /**
+     * Id of the last change relayed; -1 before the relay started.
+     */
+    public long cursor() {
+        return cursor;
+    }
+
+    void relay() {
+        if (!enabled || cursor < 0)
+            return;
+        int limit = Math.max(1, batchSize);
+        try {
+            relayLateChanges();
+            for (int i = 0; i < MAX_BATCHES_PER_POLL; i++) {
+                List<SeatChange> rows = outboxRepo.findAfter(cursor, limit);
+                if (rows.isEmpty())
+                    return;
+                long next = cursor;
+                for (SeatChange c : rows) {
+                    // a jump larger than the gap set can hold only keeps its newest ids
+                    long from = Math.max(next + 1, c.id() - Math.max(1, maxGaps));
+                    for (long missing = from; missing < c.id(); missing++) {
+                        rememberGap(missing);
+                    }
+                    next = c.id();
+                }
+                cursor = next;
+                events.publishEvent(new SeatChangeBatch(rows, next));
+                if (rows.size() < limit)
+                    return;
+            }
+        } catch (Exception ex) {
+            // never let the poll task die; subscribers keep their own refresh fallbacks
+            log.warn("Seat outbox relay failed after id {}: {}", cursor, ex.getMessage());
+        }
+    }
+
+    /**
+     * Re-reads the unresolved gap ids and relays those that have committed
+     * since; gaps past their deadline are dropped.
+     */
+    private void relayLateChanges() {
+        if (gaps.isEmpty())
+            return;
+        long now = System.nanoTime();
+        gaps.values().removeIf(deadline -> now - deadline > 0);
+        if (gaps.isEmpty())
+            return;
+        List<SeatChange> late = outboxRepo.findByIds(new ArrayList<>(gaps.keySet()));
+        if (late.isEmpty())
+            return;
+        for (SeatChange c : late) {
+            gaps.remove(c.id());
+        }
+        log.debug("Relaying {} seat changes committed behind the cursor", late.size());
+        events.publishEvent(new SeatChangeBatch(late, cursor));
+    }
+
+    private void rememberGap(long id) {
+        if (gaps.size() >= Math.max(1, maxGaps)) {
+            // drop the oldest; the subscribers' refresh fallbacks cover it
+            Long oldest = gaps.keySet().iterator().next();
+            gaps.remove(oldest);
+        }
+        gaps.put(id, System.nanoTime() + Math.max(0L, gapTimeoutMs) * 1_000_000L);
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.outbox.purge-ms:60000}", initialDelay = 60_000L)
+    public void purge() {
+        if (!enabled)
+            return;
+        long minutes = Math.max(1L, retentionMinutes);
+        int limit = Math.max(1, purgeBatch);
+        int purged = 0;
+        while (true) {
+            int n = outboxRepo.deleteOlderThan(minutes, limit);
+            purged += n;
+            if (n < limit)
+                break;
+        }
+        if (purged > 0) {
+            log.debug("Purged {} seat outbox rows older than {} minutes", purged, minutes);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.eventseat.catalog.web;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Opaque cursor for keyset (seek) pagination over id-descending listings.
+ * The token is the URL-safe Base64 of "v1:<last id>"; clients must treat it as
+ * opaque so the encoding can change later.
+ */
+public final class CursorToken {
+
+    /** Upper bound for the size of one cursor page. */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final String PREFIX = "v1:";
+
+    private CursorToken() {
+    }
+
+    public static String encode(long lastId) {
+        byte[] raw = (PREFIX + lastId).getBytes(StandardCharsets.US_ASCII);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    /**
+     * Returns the id to seek below, or null for the first page.
+     *
+     * @throws ResponseStatusException 400 when the token is malformed
+     */
+    public static Long decode(String token) {
+        if (token == null || token.isBlank())
+            return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.US_ASCII);
+            if (!raw.startsWith(PREFIX))
+                throw new IllegalArgumentException("unknown cursor version");
+            return Long.parseLong(raw.substring(PREFIX.length()));
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid_cursor");
+        }
+    }
+}
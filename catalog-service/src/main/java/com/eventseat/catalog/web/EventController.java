@@ -64,6 +64,24 @@ public class EventController {
         return response;
     }
 
+    // Keyset (seek) pagination: pass nextCursor from the previous page as 'after'
+    @GetMapping("/cursor")
+    public Map<String, Object> listByCursor(@RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size) {
+        int safeSize = Math.min(Math.max(1, size), CursorToken.MAX_PAGE_SIZE);
+        List<EventDto> items = repo.findPageBefore(CursorToken.decode(after), safeSize + 1);
+        boolean hasMore = items.size() > safeSize;
+        if (hasMore) {
+            items = items.subList(0, safeSize);
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("size", safeSize);
+        response.put("items", items);
+        response.put("count", items.size());
+        response.put("nextCursor", hasMore ? CursorToken.encode(items.get(items.size() - 1).getId()) : null);
+        return response;
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<EventDto> update(@PathVariable Long id, @Valid @RequestBody EventDto dto) {
         if (!repo.existsById(id)) {
@@ -36,6 +36,12 @@ public class HoldController {
         return holdService.getHold(id, jwt);
     }
 
+    // ADMIN: which active hold currently owns a seat
+    @GetMapping("/by-seat/{seatId}")
+    public HoldResponse getBySeat(@PathVariable Long seatId, @AuthenticationPrincipal Jwt jwt) {
+        return holdService.getActiveHoldBySeat(seatId, jwt);
+    }
+
     // ATTENDEE (owner) or ADMIN can release a hold
     @DeleteMapping("/{id}")
     public void release(@PathVariable Long id, @AuthenticationPrincipal Jwt jwt) {
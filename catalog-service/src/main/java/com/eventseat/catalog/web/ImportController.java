@@ -1,13 +1,24 @@
 package com.eventseat.catalog.web;
 
+import com.eventseat.catalog.service.ImportMode;
+import com.eventseat.catalog.service.ImportProgressListener;
+import com.eventseat.catalog.service.InventoryImportJobService;
 import com.eventseat.catalog.service.InventoryImportService;
+import com.eventseat.catalog.web.dto.ImportDtos.ImportJobStatus;
 import com.eventseat.catalog.web.dto.ImportDtos.ImportReport;
+import com.eventseat.catalog.web.dto.ImportDtos.ImportRowResult;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -23,18 +34,24 @@ import org.springframework.http.HttpStatus;
 public class ImportController {
 
     private final InventoryImportService service;
+    private final InventoryImportJobService jobService;
 
-    public ImportController(InventoryImportService service) {
+    public ImportController(InventoryImportService service, InventoryImportJobService jobService) {
         this.service = service;
+        this.jobService = jobService;
     }
 
     // ORGANIZER/ADMIN via SecurityConfig: POST /api/v1/** requires organizer/admin
     // Accepts CSV or XLSX, returns a validation report; idempotent via
-    // Idempotency-Key
+    // Idempotency-Key. With async=true the import runs as a background job and
+    // 202 is returned with the job status (poll GET /import/{jobId}).
+    // mode=delta writes only added/changed seats and keeps HELD/SOLD status.
     @PostMapping(path = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<ImportReport> importInventory(
+    public ResponseEntity<?> importInventory(
             @RequestParam("eventId") Long eventId,
             @RequestParam("file") MultipartFile file,
+            @RequestParam(name = "async", defaultValue = "false") boolean async,
+            @RequestParam(name = "mode", defaultValue = "full") String mode,
             @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
             @AuthenticationPrincipal Jwt jwt) {
         if (file == null || file.isEmpty()) {
@@ -47,16 +64,57 @@ public class ImportController {
 
         String originalFilename = file.getOriginalFilename();
         String contentType = file.getContentType();
-        byte[] bytes;
-        try {
-            bytes = file.getBytes();
-        } catch (Exception ex) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "file_read_error");
+        ImportMode importMode = ImportMode.parse(mode);
+        if (async) {
+            ImportJobStatus job = jobService.submit(eventId, idempotencyKey, originalFilename, contentType, file,
+                    importMode);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/v1/inventory/import/" + job.getJobId()))
+                    .body(job);
         }
-        ImportReport report = service.importInventory(eventId, idempotencyKey, originalFilename, contentType, bytes);
+        // The upload is streamed from the multipart store, never read into a byte[]
+        ImportReport report = service.importInventory(eventId, idempotencyKey, originalFilename, contentType, file,
+                importMode, ImportProgressListener.NONE);
         return ResponseEntity.status(HttpStatus.OK).body(report);
     }
 
+    // ORGANIZER/ADMIN via SecurityConfig (GET /api/v1/inventory/**)
+    // Pages the row results of an import by its Idempotency-Key; pass the
+    // returned nextAfterRow as afterRow for the next page.
+    @GetMapping(path = "/import/results", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Map<String, Object> getImportRowResults(
+            @RequestParam("key") String idempotencyKey,
+            @RequestParam(defaultValue = "0") int afterRow,
+            @RequestParam(defaultValue = "100") int size,
+            @RequestParam(defaultValue = "false") boolean failedOnly) {
+        int safeSize = Math.min(Math.max(1, size), 1000);
+        List<ImportRowResult> items = service.findRowResults(idempotencyKey, afterRow, safeSize + 1, failedOnly);
+        if (items == null) {
+            throw new ResourceNotFoundException("Import not found: " + idempotencyKey);
+        }
+        boolean hasMore = items.size() > safeSize;
+        if (hasMore) {
+            items = items.subList(0, safeSize);
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("key", idempotencyKey);
+        response.put("size", safeSize);
+        response.put("items", items);
+        response.put("count", items.size());
+        response.put("nextAfterRow", hasMore ? items.get(items.size() - 1).getRowNumber() : null);
+        return response;
+    }
+
+    // ORGANIZER/ADMIN via SecurityConfig (GET /api/v1/inventory/**)
+    @GetMapping(path = "/import/{jobId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ImportJobStatus getImportJob(@PathVariable String jobId) {
+        ImportJobStatus job = jobService.getStatus(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Import job not found: " + jobId);
+        }
+        return job;
+    }
+
     @SuppressWarnings("unused")
     private Long getUid(Jwt jwt) {
         if (jwt == null)
@@ -0,0 +1,30 @@
+package com.eventseat.catalog.web;
+
+import com.eventseat.catalog.service.SeatChangeFeed;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/v1/seats/changes")
+public class SeatChangeController {
+
+    private final SeatChangeFeed feed;
+
+    public SeatChangeController(SeatChangeFeed feed) {
+        this.feed = feed;
+    }
+
+    // Server-sent stream of seat status changes (HELD/AVAILABLE/SOLD) for cache
+    // invalidation (ORGANIZER, ADMIN or SERVICE role). Resumes after
+    // Last-Event-ID or afterId when given.
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId,
+            @RequestParam(required = false) Long afterId) {
+        return feed.subscribe(lastEventId != null ? lastEventId : afterId);
+    }
+}
@@ -1,6 +1,8 @@
 package com.eventseat.catalog.web;
 
 import com.eventseat.catalog.repository.SeatJdbcRepository;
+import com.eventseat.catalog.service.InventorySummaryDeltas;
+import com.eventseat.catalog.service.SeatAvailabilityIndex;
 import com.eventseat.catalog.web.dto.SeatDto;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -19,14 +21,21 @@ import java.util.Map;
 public class SeatController {
 
     private final SeatJdbcRepository repo;
+    private final SeatAvailabilityIndex seatIndex;
+    private final InventorySummaryDeltas summaryDeltas;
 
-    public SeatController(SeatJdbcRepository repo) {
+    public SeatController(SeatJdbcRepository repo, SeatAvailabilityIndex seatIndex,
+            InventorySummaryDeltas summaryDeltas) {
         this.repo = repo;
+        this.seatIndex = seatIndex;
+        this.summaryDeltas = summaryDeltas;
     }
 
     @PostMapping
     public ResponseEntity<SeatDto> create(@Valid @RequestBody SeatDto dto) {
         SeatDto saved = repo.save(dto);
+        seatIndex.invalidateOnCommit(saved.getEventId());
+        summaryDeltas.recompute(saved.getEventId());
         return ResponseEntity
                 .created(URI.create("/api/v1/seats/" + saved.getId()))
                 .body(saved);
@@ -57,15 +66,43 @@ public class SeatController {
         return response;
     }
 
+    // Keyset (seek) pagination: pass nextCursor from the previous page as 'after'
+    @GetMapping("/cursor")
+    public Map<String, Object> listByCursor(@RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) Long eventId) {
+        int safeSize = Math.min(Math.max(1, size), CursorToken.MAX_PAGE_SIZE);
+        List<SeatDto> items = repo.findPageBefore(CursorToken.decode(after), eventId, safeSize + 1);
+        boolean hasMore = items.size() > safeSize;
+        if (hasMore) {
+            items = items.subList(0, safeSize);
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("size", safeSize);
+        response.put("items", items);
+        response.put("count", items.size());
+        response.put("nextCursor", hasMore ? CursorToken.encode(items.get(items.size() - 1).getId()) : null);
+        if (eventId != null) {
+            response.put("eventId", eventId);
+        }
+        return response;
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<SeatDto> update(@PathVariable Long id, @Valid @RequestBody SeatDto dto) {
-        if (!repo.existsById(id)) {
-            throw new ResourceNotFoundException("Seat not found: " + id);
-        }
+        SeatDto before = repo.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Seat not found: " + id));
         int updated = repo.update(id, dto);
         if (updated == 0) {
             throw new ResourceNotFoundException("Seat not found: " + id);
         }
+        // Status or event may have changed; drop cached availability for both
+        seatIndex.invalidateOnCommit(before.getEventId());
+        seatIndex.invalidateOnCommit(dto.getEventId());
+        summaryDeltas.recompute(before.getEventId());
+        if (!before.getEventId().equals(dto.getEventId())) {
+            summaryDeltas.recompute(dto.getEventId());
+        }
         return repo.findById(id)
                 .map(ResponseEntity::ok)
                 .orElseThrow(() -> new ResourceNotFoundException("Seat not found after update: " + id));
@@ -73,10 +110,11 @@ public class SeatController {
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
-        if (!repo.existsById(id)) {
-            throw new ResourceNotFoundException("Seat not found: " + id);
-        }
+        SeatDto existing = repo.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Seat not found: " + id));
         repo.delete(id);
+        seatIndex.invalidateOnCommit(existing.getEventId());
+        summaryDeltas.recompute(existing.getEventId());
         return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
     }
 }
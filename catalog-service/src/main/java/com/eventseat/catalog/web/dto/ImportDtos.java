@@ -1,6 +1,7 @@
 package com.eventseat.catalog.web.dto;
 
 import java.math.BigDecimal;
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -60,7 +61,18 @@ public class ImportDtos {
         private int total;
         private int success;
         private int failed;
+        // failed rows only, capped at catalog.import.report.inline-failures; page
+        // all row results via GET /api/v1/inventory/import/results
         private List<ImportRowResult> rows = new ArrayList<>();
+        private boolean rowsTruncated;
+        private String mode; // FULL | DELTA
+        // seat counts of a DELTA import (null for FULL); retained = missing from
+        // the file but kept because HELD/SOLD
+        private Integer added;
+        private Integer changed;
+        private Integer unchanged;
+        private Integer removed;
+        private Integer retained;
 
         public Long getEventId() {
             return eventId;
@@ -117,5 +129,181 @@ public class ImportDtos {
         public void setRows(List<ImportRowResult> rows) {
             this.rows = rows;
         }
+
+        public boolean isRowsTruncated() {
+            return rowsTruncated;
+        }
+
+        public void setRowsTruncated(boolean rowsTruncated) {
+            this.rowsTruncated = rowsTruncated;
+        }
+
+        public String getMode() {
+            return mode;
+        }
+
+        public void setMode(String mode) {
+            this.mode = mode;
+        }
+
+        public Integer getAdded() {
+            return added;
+        }
+
+        public void setAdded(Integer added) {
+            this.added = added;
+        }
+
+        public Integer getChanged() {
+            return changed;
+        }
+
+        public void setChanged(Integer changed) {
+            this.changed = changed;
+        }
+
+        public Integer getUnchanged() {
+            return unchanged;
+        }
+
+        public void setUnchanged(Integer unchanged) {
+            this.unchanged = unchanged;
+        }
+
+        public Integer getRemoved() {
+            return removed;
+        }
+
+        public void setRemoved(Integer removed) {
+            this.removed = removed;
+        }
+
+        public Integer getRetained() {
+            return retained;
+        }
+
+        public void setRetained(Integer retained) {
+            this.retained = retained;
+        }
+    }
+
+    public static class ImportJobStatus {
+        private String jobId;
+        private String status; // QUEUED | RUNNING | COMPLETED | FAILED
+        private Long eventId;
+        private String idempotencyKey;
+        private long rowsProcessed;
+        private long rowsSucceeded;
+        private long rowsFailed;
+        private double rowsPerSecond;
+        private OffsetDateTime submittedAt;
+        private OffsetDateTime startedAt;
+        private OffsetDateTime finishedAt;
+        private String error;
+        private ImportReport report; // set once COMPLETED
+
+        public String getJobId() {
+            return jobId;
+        }
+
+        public void setJobId(String jobId) {
+            this.jobId = jobId;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public void setStatus(String status) {
+            this.status = status;
+        }
+
+        public Long getEventId() {
+            return eventId;
+        }
+
+        public void setEventId(Long eventId) {
+            this.eventId = eventId;
+        }
+
+        public String getIdempotencyKey() {
+            return idempotencyKey;
+        }
+
+        public void setIdempotencyKey(String idempotencyKey) {
+            this.idempotencyKey = idempotencyKey;
+        }
+
+        public long getRowsProcessed() {
+            return rowsProcessed;
+        }
+
+        public void setRowsProcessed(long rowsProcessed) {
+            this.rowsProcessed = rowsProcessed;
+        }
+
+        public long getRowsSucceeded() {
+            return rowsSucceeded;
+        }
+
+        public void setRowsSucceeded(long rowsSucceeded) {
+            this.rowsSucceeded = rowsSucceeded;
+        }
+
+        public long getRowsFailed() {
+            return rowsFailed;
+        }
+
+        public void setRowsFailed(long rowsFailed) {
+            this.rowsFailed = rowsFailed;
+        }
+
+        public double getRowsPerSecond() {
+            return rowsPerSecond;
+        }
+
+        public void setRowsPerSecond(double rowsPerSecond) {
+            this.rowsPerSecond = rowsPerSecond;
+        }
+
+        public OffsetDateTime getSubmittedAt() {
+            return submittedAt;
+        }
+
+        public void setSubmittedAt(OffsetDateTime submittedAt) {
+            this.submittedAt = submittedAt;
+        }
+
+        public OffsetDateTime getStartedAt() {
+            return startedAt;
+        }
+
+        public void setStartedAt(OffsetDateTime startedAt) {
+            this.startedAt = startedAt;
+        }
+
+        public OffsetDateTime getFinishedAt() {
+            return finishedAt;
+        }
+
+        public void setFinishedAt(OffsetDateTime finishedAt) {
+            this.finishedAt = finishedAt;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public void setError(String error) {
+            this.error = error;
+        }
+
+        public ImportReport getReport() {
+            return report;
+        }
+
+        public void setReport(ImportReport report) {
+            this.report = report;
+        }
     }
 }
@@ -0,0 +1,64 @@
+package com.eventseat.catalog.repository;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.eventseat.catalog.web.dto.EventSearchItem;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+class EventSearchRepositoryTest {
+
+    /**
+     * Stands in for MySQL: matches v.city = ? like a NO PAD, case-insensitive
+     * collation (trailing spaces count, case does not) over one venue in
+     * "Paris".
+     */
+    private static final class FakeJdbcTemplate extends JdbcTemplate {
+        final List<Object[]> bound = new ArrayList<>();
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+            bound.add(args);
+            List<EventSearchItem> rows = new ArrayList<>();
+            if (!sql.contains("v.city = ?") || "paris".equals(((String) args[0]).toLowerCase())) {
+                EventSearchItem item = new EventSearchItem();
+                item.setId(1L);
+                item.setCity("Paris");
+                rows.add(item);
+            }
+            return (List<T>) rows;
+        }
+    }
+
+    @Test
+    void whitespaceOnlyDifferencesBindAndCacheTheSame() {
+        FakeJdbcTemplate jdbc = new FakeJdbcTemplate();
+        EventSearchRepository repo = new EventSearchRepository(jdbc);
+
+        List<EventSearchItem> padded = repo.search(0, 10, " Paris ", null, null, null, null, null, null);
+        List<EventSearchItem> plain = repo.search(0, 10, "Paris", null, null, null, null, null, null);
+
+        assertArrayEquals(jdbc.bound.get(1), jdbc.bound.get(0));
+        assertEquals(1, padded.size());
+        assertEquals(plain.size(), padded.size());
+        assertEquals(plain.get(0).getId(), padded.get(0).getId());
+        assertEquals(EventSearchKey.of(0, 10, "Paris", null, null, null, null, null, null),
+                EventSearchKey.of(0, 10, " Paris ", null, null, null, null, null, null));
+    }
+
+    @Test
+    void blankTextFiltersAreDropped() {
+        FakeJdbcTemplate jdbc = new FakeJdbcTemplate();
+        new EventSearchRepository(jdbc).search(0, 10, "  ", " ", null, null, null, null, null);
+
+        // only LIMIT and OFFSET are bound
+        assertEquals(2, jdbc.bound.get(0).length);
+        assertNull(EventSearchKey.of(0, 10, "  ", " ", null, null, null, null, null).city());
+    }
+}
@@ -0,0 +1,93 @@
+package com.eventseat.catalog.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class IdempotencyImportJdbcRepositoryTest {
+
+    private static final int TODAY = 20_000;
+
+    /**
+     * Stands in for idempotency_imports with only its (key, bucket) primary
+     * key; runAfterInsert fires between a claim's insert and its neighbour
+     * check, where a concurrent twin's insert would land.
+     */
+    private static final class FakeJdbcTemplate extends JdbcTemplate {
+        final Set<String> rows = new HashSet<>();
+        Runnable runAfterInsert;
+
+        @Override
+        public int update(String sql, Object... args) {
+            String row = args[0] + "@" + args[1];
+            if (sql.startsWith("INSERT")) {
+                if (!rows.add(row))
+                    throw new DuplicateKeyException(row);
+                if (runAfterInsert != null) {
+                    Runnable r = runAfterInsert;
+                    runAfterInsert = null;
+                    r.run();
+                }
+                return 1;
+            }
+            if (sql.startsWith("DELETE")) {
+                return rows.remove(row) ? 1 : 0;
+            }
+            throw new UnsupportedOperationException(sql);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T queryForObject(String sql, Class<T> requiredType, Object... args) {
+            int n = 0;
+            for (int i = 1; i < args.length; i++) {
+                if (rows.contains(args[0] + "@" + args[i]))
+                    n++;
+            }
+            return (T) Integer.valueOf(n);
+        }
+    }
+
+    @Test
+    void firstClaimWinsAndASecondInTheSameBucketLoses() {
+        FakeJdbcTemplate jdbc = new FakeJdbcTemplate();
+        IdempotencyImportJdbcRepository repo = new IdempotencyImportJdbcRepository(jdbc);
+
+        assertTrue(repo.tryClaim("k", TODAY));
+        assertFalse(repo.tryClaim("k", TODAY));
+        assertEquals(Set.of("k@" + TODAY), jdbc.rows);
+    }
+
+    @Test
+    void keyInYesterdaysBucketBlocksTheClaim() {
+        FakeJdbcTemplate jdbc = new FakeJdbcTemplate();
+        jdbc.rows.add("k@" + (TODAY - 1));
+        IdempotencyImportJdbcRepository repo = new IdempotencyImportJdbcRepository(jdbc);
+
+        assertFalse(repo.tryClaim("k", TODAY));
+        // the losing row is removed, so the key resolves to the older one only
+        assertEquals(Set.of("k@" + (TODAY - 1)), jdbc.rows);
+    }
+
+    @Test
+    void twinsAcrossMidnightNeverBothWin() {
+        FakeJdbcTemplate jdbc = new FakeJdbcTemplate();
+        IdempotencyImportJdbcRepository repo = new IdempotencyImportJdbcRepository(jdbc);
+        boolean[] twinWon = new boolean[1];
+        // the twin on the next day inserts and checks while this claim sits
+        // between its own insert and check
+        jdbc.runAfterInsert = () -> twinWon[0] = repo.tryClaim("k", TODAY + 1);
+
+        boolean won = repo.tryClaim("k", TODAY);
+
+        assertFalse(won && twinWon[0]);
+        // only the winner's row is left
+        assertEquals(won ? Set.of("k@" + TODAY) : Set.of(), jdbc.rows);
+    }
+}
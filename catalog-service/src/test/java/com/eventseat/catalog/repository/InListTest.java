@@ -0,0 +1,62 @@
+package com.eventseat.catalog.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+
+class InListTest {
+
+    @Test
+    void bucketIsTheNextPowerOfTwo() {
+        assertEquals(1, InList.bucket(0));
+        assertEquals(1, InList.bucket(1));
+        assertEquals(2, InList.bucket(2));
+        assertEquals(4, InList.bucket(3));
+        assertEquals(4, InList.bucket(4));
+        assertEquals(8, InList.bucket(5));
+        assertEquals(1024, InList.bucket(1000));
+        assertEquals(2048, InList.bucket(1025));
+    }
+
+    @Test
+    void padsWithTheLastValue() {
+        List<Object> args = new ArrayList<>(List.of("event"));
+        String sql = InList.of(List.of(10L, 20L, 30L), args);
+
+        assertEquals("(?,?,?,?)", sql);
+        assertEquals(List.of("event", 10L, 20L, 30L, 30L), args);
+    }
+
+    @Test
+    void sameBucketSameStatement() {
+        String five = InList.of(LongStream.rangeClosed(1, 5).boxed().toList(), new ArrayList<>());
+        String eight = InList.of(LongStream.rangeClosed(1, 8).boxed().toList(), new ArrayList<>());
+        assertTrue(five == eight, "lists in one bucket share the cached fragment");
+    }
+
+    @Test
+    void longIdListsGoThroughJsonTable() {
+        List<Object> args = new ArrayList<>();
+        String sql = InList.of(LongStream.rangeClosed(1, InList.MAX_BUCKET + 1).boxed().toList(), args);
+
+        assertTrue(sql.contains("JSON_TABLE"));
+        assertEquals(1, args.size());
+        assertTrue(((String) args.get(0)).startsWith("[1,2,3,"));
+    }
+
+    @Test
+    void longNonIdListsArePaddedPastTheLastBucket() {
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i <= InList.MAX_BUCKET; i++)
+            values.add("k" + i);
+        List<Object> args = new ArrayList<>();
+        String sql = InList.of(values, args);
+
+        assertEquals(2 * InList.MAX_BUCKET, args.size());
+        assertEquals(2 * InList.MAX_BUCKET, sql.chars().filter(c -> c == '?').count());
+    }
+}
@@ -0,0 +1,103 @@
+package com.eventseat.catalog.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class HoldExpiryWheelTest {
+
+    private static final long TICK_MS = 1000L;
+    private static final long START_MS = 1_000_000L * TICK_MS;
+
+    /**
+     * Records the hold ids the wheel releases instead of expiring them.
+     */
+    private static final class RecordingHoldService extends HoldService {
+        final List<Long> released = new ArrayList<>();
+
+        RecordingHoldService() {
+            super(null, null, null, null, null, null, null);
+        }
+
+        @Override
+        public int expireBatch(Long eventId, List<Long> holdIds) {
+            released.addAll(holdIds);
+            return holdIds.size();
+        }
+    }
+
+    private RecordingHoldService holds;
+    private HoldExpiryWheel wheel;
+
+    @BeforeEach
+    void setUp() {
+        holds = new RecordingHoldService();
+        wheel = new HoldExpiryWheel(null, holds);
+        ReflectionTestUtils.setField(wheel, "tickMs", TICK_MS);
+        ReflectionTestUtils.setField(wheel, "chunkSize", 500);
+        wheel.startAt(START_MS);
+    }
+
+    @Test
+    void deadlineIsRoundedUpToTheNextTick() {
+        wheel.register(1L, 7L, START_MS + 2 * TICK_MS + 1);
+
+        wheel.tick(START_MS + 3 * TICK_MS - 1);
+        assertTrue(holds.released.isEmpty(), "released before expiresAt");
+
+        wheel.tick(START_MS + 3 * TICK_MS);
+        assertEquals(List.of(1L), holds.released);
+    }
+
+    @Test
+    void deadlineOnATickBoundaryFiresOnThatTick() {
+        wheel.register(1L, 7L, START_MS + 5 * TICK_MS);
+
+        wheel.tick(START_MS + 4 * TICK_MS);
+        assertTrue(holds.released.isEmpty());
+
+        wheel.tick(START_MS + 5 * TICK_MS);
+        assertEquals(List.of(1L), holds.released);
+    }
+
+    @Test
+    void expiredHoldIsReleasedOnTheNextTick() {
+        wheel.register(1L, 7L, START_MS - 10 * TICK_MS);
+
+        wheel.tick(START_MS);
+        assertEquals(List.of(1L), holds.released);
+    }
+
+    @Test
+    void higherLevelsCascadeDownToTheExactTick() {
+        // one deadline per level: 64, 64^2 and 64^3 ticks are the level boundaries
+        long[] ticksOut = { 63, 64 + 5, 64 * 64 + 17, 64 * 64 * 64 + 3 };
+        for (int i = 0; i < ticksOut.length; i++) {
+            wheel.register(i + 1L, 7L, START_MS + ticksOut[i] * TICK_MS);
+        }
+        wheel.tick(START_MS);
+
+        for (int i = 0; i < ticksOut.length; i++) {
+            wheel.tick(START_MS + (ticksOut[i] - 1) * TICK_MS);
+            assertEquals(i, holds.released.size(), "hold " + (i + 1) + " released early");
+            wheel.tick(START_MS + ticksOut[i] * TICK_MS);
+            assertEquals(i + 1, holds.released.size(), "hold " + (i + 1) + " not released on its tick");
+            assertEquals(i + 1L, holds.released.get(i));
+        }
+    }
+
+    @Test
+    void delayedTickCatchesUpOnEveryMissedSlot() {
+        wheel.register(1L, 7L, START_MS + 3 * TICK_MS);
+        wheel.register(2L, 7L, START_MS + 90 * TICK_MS);
+        wheel.register(3L, 7L, START_MS + 200 * TICK_MS);
+
+        wheel.tick(START_MS + 100 * TICK_MS);
+        assertEquals(List.of(1L, 2L), holds.released);
+    }
+}
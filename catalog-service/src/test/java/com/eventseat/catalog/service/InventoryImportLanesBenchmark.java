@@ -0,0 +1,132 @@
+package com.eventseat.catalog.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.eventseat.catalog.repository.IdempotencyImportJdbcRepository;
+import com.eventseat.catalog.repository.ImportRowResultJdbcRepository;
+import com.eventseat.catalog.repository.SeatJdbcRepository;
+import com.eventseat.catalog.web.dto.ImportDtos.ImportReport;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Timed comparison of the serial import loop (catalog.import.parallelism=1)
+ * against N section lanes, on the real write path: the application context and
+ * MySQL database from application.properties, one fresh event per run.
+ *
+ * Not part of the regular test run (the class name does not match surefire's
+ * includes); run it explicitly:
+ *
+ * mvn -pl catalog-service test -Dtest=InventoryImportLanesBenchmark
+ * -Dbenchmark.rows=50000 -Dbenchmark.sections=16 -Dbenchmark.lanes=4
+ *
+ * Each configuration imports the same generated CSV benchmark.runs times after
+ * one warm-up run and prints the best and mean rows/s.
+ */
+@SpringBootTest(properties = { "eureka.client.enabled=false", "spring.jpa.show-sql=false" })
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class InventoryImportLanesBenchmark {
+
+    // Far above real event ids; seats carry no foreign key to events
+    private static final long EVENT_ID_BASE = 9_000_000_000L;
+
+    private final int rows = Integer.getInteger("benchmark.rows", 20_000);
+    private final int sections = Integer.getInteger("benchmark.sections", 16);
+    private final int lanes = Integer.getInteger("benchmark.lanes", 4);
+    private final int runs = Integer.getInteger("benchmark.runs", 3);
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long nextEventId = EVENT_ID_BASE + (System.currentTimeMillis() % 1_000_000L) * 1_000L;
+
+    @Test
+    void serialVersusLanes() {
+        byte[] csv = generateCsv();
+        double serial = measure(1, csv);
+        double parallel = measure(lanes, csv);
+        System.out.printf("Inventory import, %d rows in %d sections: parallelism=1 %.0f rows/s, "
+                + "parallelism=%d %.0f rows/s (x%.2f)%n", rows, sections, serial, lanes, parallel,
+                parallel / serial);
+    }
+
+    /**
+     * Best rows/s over the measured runs of a service built with the given
+     * parallelism; every run imports into a new event so all rows are inserts.
+     */
+    private double measure(int parallelism, byte[] csv) {
+        InventoryImportService service = newService(parallelism);
+        try {
+            importOnce(service, csv);
+            double best = 0;
+            double sum = 0;
+            for (int i = 0; i < Math.max(1, runs); i++) {
+                long started = System.nanoTime();
+                ImportReport report = importOnce(service, csv);
+                double rowsPerSecond = report.getTotal() * 1e9 / Math.max(1L, System.nanoTime() - started);
+                assertEquals(0, report.getFailed(), "benchmark rows must all import");
+                best = Math.max(best, rowsPerSecond);
+                sum += rowsPerSecond;
+            }
+            System.out.printf("parallelism=%d: best %.0f rows/s, mean %.0f rows/s over %d runs%n", parallelism,
+                    best, sum / Math.max(1, runs), Math.max(1, runs));
+            return best;
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    private ImportReport importOnce(InventoryImportService service, byte[] csv) {
+        long eventId = nextEventId++;
+        return service.importInventory(eventId, "bench-" + UUID.randomUUID(), "bench.csv", "text/csv",
+                new ByteArrayResource(csv));
+    }
+
+    // Same collaborators and @Value settings as the application's bean, only the
+    // lane count differs
+    private InventoryImportService newService(int parallelism) {
+        InventoryImportService service = new InventoryImportService(context.getBean(SeatJdbcRepository.class),
+                context.getBean(IdempotencyImportJdbcRepository.class),
+                context.getBean(ImportRowResultJdbcRepository.class), context.getBean(SeatAvailabilityIndex.class),
+                context.getBean(InventorySummaryDeltas.class), context.getBean(InventoryFileReader.class),
+                context.getBean(PlatformTransactionManager.class), parallelism);
+        context.getAutowireCapableBeanFactory().autowireBean(service);
+        return service;
+    }
+
+    private byte[] generateCsv() {
+        StringBuilder sb = new StringBuilder(rows * 32);
+        sb.append("section,rowLabel,seatNumber,basePrice,currency\n");
+        int sectionCount = Math.max(1, sections);
+        // Sections interleaved, as in a venue-ordered export: every lane is fed throughout
+        for (int i = 0; i < rows; i++) {
+            int section = i % sectionCount;
+            int inSection = i / sectionCount;
+            sb.append('S').append(section).append(',')
+                    .append('R').append(inSection / 50).append(',')
+                    .append(inSection % 50 + 1).append(',')
+                    .append(25 + section).append(".00,USD\n");
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM seats WHERE event_id >= ?", EVENT_ID_BASE);
+        jdbcTemplate.update("DELETE FROM event_inventory_summary WHERE event_id >= ?", EVENT_ID_BASE);
+        jdbcTemplate.update("DELETE FROM import_row_results WHERE import_key LIKE 'bench-%'");
+        jdbcTemplate.update("DELETE FROM idempotency_imports WHERE `key` LIKE 'bench-%'");
+    }
+}
@@ -0,0 +1,108 @@
+package com.eventseat.catalog.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.eventseat.catalog.repository.SeatJdbcRepository;
+import com.eventseat.catalog.repository.SeatOutboxJdbcRepository.SeatChange;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class SeatAvailabilityIndexTest {
+
+    private static final long EVENT = 7L;
+
+    /**
+     * Serves seats of one event from a map; duringLoad runs after the rows were
+     * read and before they are handed to the index, like a write that commits
+     * while the snapshot query streams.
+     */
+    private static final class FakeSeatRepository extends SeatJdbcRepository {
+        final Map<Long, String> rows = new TreeMap<>();
+        Runnable duringLoad;
+        int loads;
+
+        FakeSeatRepository() {
+            super(null);
+        }
+
+        @Override
+        public void forEachIdAndStatusByEventId(Long eventId, SeatStatusCallback callback) {
+            loads++;
+            Map<Long, String> read = new TreeMap<>(rows);
+            if (duringLoad != null) {
+                Runnable r = duringLoad;
+                duringLoad = null;
+                r.run();
+            }
+            read.forEach(callback::accept);
+        }
+    }
+
+    private FakeSeatRepository seats;
+    private SeatAvailabilityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        seats = new FakeSeatRepository();
+        seats.rows.put(1L, "AVAILABLE");
+        seats.rows.put(2L, "HELD");
+        seats.rows.put(3L, "SOLD");
+        index = new SeatAvailabilityIndex(seats);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "refreshSeconds", 30L);
+        ReflectionTestUtils.setField(index, "maxEvents", 256);
+    }
+
+    @Test
+    void reportsHeldAndSoldSeatsOnly() {
+        Map<Long, Object> unavailable = index.findUnavailable(EVENT, List.of(1L, 2L, 3L, 99L));
+
+        assertEquals(Map.of(2L, Map.of("reason", "not_available", "status", "HELD"),
+                3L, Map.of("reason", "not_available", "status", "SOLD")), unavailable);
+    }
+
+    @Test
+    void committedChangesApplyToTheLoadedSnapshot() {
+        index.findUnavailable(EVENT, List.of(1L));
+        index.markHeldOnCommit(EVENT, List.of(1L));
+        index.markAvailableOnCommit(EVENT, List.of(2L));
+        SeatChange released = new SeatChange(10L, EVENT, 3L, "AVAILABLE", "order", null);
+        index.onSeatChanges(new SeatChangeBatch(List.of(released), 10L));
+
+        assertEquals(Map.of(1L, Map.of("reason", "not_available", "status", "HELD")),
+                index.findUnavailable(EVENT, List.of(1L, 2L, 3L)));
+        assertEquals(1, seats.loads);
+    }
+
+    @Test
+    void changeCommittedDuringTheLoadIsNotLostBehindTheSnapshot() {
+        seats.duringLoad = () -> {
+            seats.rows.put(2L, "AVAILABLE");
+            index.markAvailableOnCommit(EVENT, List.of(2L));
+        };
+
+        // the rows read still say HELD; they must not be published or trusted
+        assertTrue(index.findUnavailable(EVENT, List.of(2L)).isEmpty());
+        assertTrue(index.findUnavailable(EVENT, List.of(2L)).isEmpty());
+        assertEquals(2, seats.loads);
+        // the second load was published
+        index.findUnavailable(EVENT, List.of(2L));
+        assertEquals(2, seats.loads);
+    }
+
+    @Test
+    void invalidatedEventIsReloaded() {
+        index.findUnavailable(EVENT, List.of(1L));
+        seats.rows.put(1L, "SOLD");
+        index.invalidateOnCommit(EVENT);
+
+        assertEquals(Map.of(1L, Map.of("reason", "not_available", "status", "SOLD")),
+                index.findUnavailable(EVENT, List.of(1L)));
+        assertEquals(2, seats.loads);
+    }
+}
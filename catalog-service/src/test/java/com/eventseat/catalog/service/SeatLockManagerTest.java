@@ -0,0 +1,87 @@
+package com.eventseat.catalog.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+class SeatLockManagerTest {
+
+    private SimpleMeterRegistry registry;
+    private SeatLockManager locks;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        locks = new SeatLockManager(registry, 64);
+        ReflectionTestUtils.setField(locks, "blockSize", 8);
+        ReflectionTestUtils.setField(locks, "timeoutMs", 100L);
+    }
+
+    @Test
+    void runsTheActionAndReleasesEveryStripe() throws Exception {
+        assertEquals("ok", locks.callLocked(1L, List.of(5L, 1L, 40L, 5L), () -> "ok"));
+
+        // another thread can take the same stripes right away
+        String other = CompletableFuture.supplyAsync(() -> locks.callLocked(1L, List.of(1L, 40L), () -> "again"))
+                .get(1, TimeUnit.SECONDS);
+        assertEquals("again", other);
+        assertEquals(2, registry.get("catalog.hold.lock.wait").timer().count());
+    }
+
+    @Test
+    void refusesToLockInsideATransaction() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThrows(IllegalStateException.class, () -> locks.callLocked(1L, List.of(1L), () -> "never"));
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+    }
+
+    @Test
+    void overlappingSeatsTimeOutWith409() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> locks.callLocked(1L, List.of(3L), () -> {
+            locked.countDown();
+            try {
+                done.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        try {
+            assertTrue(locked.await(1, TimeUnit.SECONDS));
+            // seat 4 is in the same block of 8 as seat 3
+            ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                    () -> locks.callLocked(1L, List.of(4L, 100L), () -> "never"));
+            assertEquals(HttpStatus.CONFLICT, ex.getStatusCode());
+            assertEquals(1.0, registry.get("catalog.hold.lock.timeouts").counter().count());
+        } finally {
+            done.countDown();
+            holder.get(1, TimeUnit.SECONDS);
+        }
+        // the stripe taken before the timeout was given back
+        assertEquals("ok", CompletableFuture.supplyAsync(() -> locks.callLocked(1L, List.of(100L), () -> "ok"))
+                .get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void emptySeatSetRunsWithoutLocking() {
+        assertEquals("ok", locks.callLocked(1L, List.of(), () -> "ok"));
+        assertEquals(0, registry.get("catalog.hold.lock.wait").timer().count());
+    }
+}
@@ -1,5 +1,6 @@
 package com.eventseat.order.config;
 
+import com.eventseat.order.repository.DailyPartitions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.ApplicationRunner;
@@ -11,6 +12,9 @@ import org.springframework.jdbc.core.JdbcTemplate;
  * Safety net to ensure the idempotency_keys table exists before first use.
  * This complements JPA ddl-auto=update and prevents SQLSyntaxErrorException
  * when the first JDBC write happens before Hibernate creates the table.
+ * The table is RANGE partitioned by day bucket so IdempotencyKeyPurgeJob can
+ * drop expired days; a table created by Hibernate or before the bucket column
+ * is migrated in place.
  */
 @Configuration
 public class IdempotencySchemaInitializer {
@@ -23,15 +27,54 @@ public class IdempotencySchemaInitializer {
             String ddl = """
                     CREATE TABLE IF NOT EXISTS idempotency_keys (
                       `key` VARCHAR(128) NOT NULL,
-                      request_hash VARCHAR(256) NOT NULL,
+                      bucket INT NOT NULL,
+                      request_hash VARCHAR(256) NULL,
+                      request_fp BINARY(32) NULL,
                       response_json TEXT NULL,
                       order_id BIGINT NULL,
                       created_at DATETIME NOT NULL,
-                      PRIMARY KEY (`key`)
+                      PRIMARY KEY (`key`, bucket),
+                      KEY idx_idempotency_keys_created (created_at)
                     ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4
-                    """;
+                    """ + DailyPartitions.partitionClause();
             jdbcTemplate.execute(ddl);
+
+            // Tables created before request_fp: add the binary fingerprint, stop
+            // requiring the legacy hash and index created_at for the purge job
+            if (count(jdbcTemplate, "SELECT COUNT(1) FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE() "
+                    + "AND TABLE_NAME = 'idempotency_keys' AND COLUMN_NAME = 'request_fp'") == 0) {
+                jdbcTemplate.execute("ALTER TABLE idempotency_keys ADD COLUMN request_fp BINARY(32) NULL AFTER request_hash");
+            }
+            if (count(jdbcTemplate, "SELECT COUNT(1) FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE() "
+                    + "AND TABLE_NAME = 'idempotency_keys' AND COLUMN_NAME = 'request_hash' AND IS_NULLABLE = 'NO'") > 0) {
+                jdbcTemplate.execute("ALTER TABLE idempotency_keys MODIFY request_hash VARCHAR(256) NULL");
+            }
+            if (count(jdbcTemplate, "SELECT COUNT(1) FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = DATABASE() "
+                    + "AND TABLE_NAME = 'idempotency_keys' AND INDEX_NAME = 'idx_idempotency_keys_created'") == 0) {
+                jdbcTemplate.execute("ALTER TABLE idempotency_keys ADD KEY idx_idempotency_keys_created (created_at)");
+            }
+            if (count(jdbcTemplate, "SELECT COUNT(1) FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE() "
+                    + "AND TABLE_NAME = 'idempotency_keys' AND COLUMN_NAME = 'bucket'") == 0) {
+                jdbcTemplate.execute("ALTER TABLE idempotency_keys ADD COLUMN bucket INT NOT NULL DEFAULT 0 AFTER `key`");
+                jdbcTemplate.update("UPDATE idempotency_keys SET bucket = " + DailyPartitions.BUCKET_OF_CREATED_AT);
+            }
+            if (!new DailyPartitions(jdbcTemplate, "idempotency_keys").isPartitioned()) {
+                try {
+                    // MySQL requires the partitioning column in every unique key
+                    jdbcTemplate.execute("ALTER TABLE idempotency_keys DROP PRIMARY KEY, ADD PRIMARY KEY (`key`, bucket) "
+                            + DailyPartitions.partitionClause());
+                    log.info("Partitioned 'idempotency_keys' by day bucket.");
+                } catch (Exception ex) {
+                    // Still usable unpartitioned; the purge job falls back to batched deletes
+                    log.warn("Could not partition 'idempotency_keys': {}", ex.getMessage());
+                }
+            }
             log.info("Ensured table 'idempotency_keys' exists (startup check completed).");
         };
     }
+
+    private long count(JdbcTemplate jdbcTemplate, String sql) {
+        Long n = jdbcTemplate.queryForObject(sql, Long.class);
+        return n == null ? 0 : n;
+    }
 }
@@ -3,19 +3,27 @@ package com.eventseat.order.domain;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import java.time.OffsetDateTime;
 
+/**
+ * Mapping kept for ddl-auto; the table itself (day-bucket partitioning and the
+ * (key, bucket) primary key) is owned by IdempotencySchemaInitializer.
+ */
 @Entity
-@Table(name = "idempotency_keys")
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_created", columnList = "created_at"))
 public class IdempotencyKeyEntity {
 
     @Id
     @Column(length = 128)
     private String key; // header value
 
-    @Column(nullable = false, length = 256)
-    private String requestHash; // stable hash of request payload
+    @Column(length = 256)
+    private String requestHash; // legacy 32-bit hash; null for rows with requestFp
+
+    @Column(name = "request_fp", columnDefinition = "BINARY(32)")
+    private byte[] requestFp; // SHA-256 of the canonical request (OrderRequestFingerprint)
 
     @Column(length = 4000)
     private String responseJson; // cached response to return on replay
@@ -42,6 +50,14 @@ public class IdempotencyKeyEntity {
         this.requestHash = requestHash;
     }
 
+    public byte[] getRequestFp() {
+        return requestFp;
+    }
+
+    public void setRequestFp(byte[] requestFp) {
+        this.requestFp = requestFp;
+    }
+
     public String getResponseJson() {
         return responseJson;
     }
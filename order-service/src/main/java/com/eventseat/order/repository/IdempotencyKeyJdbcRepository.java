@@ -7,16 +7,26 @@ import java.sql.Timestamp;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.Optional;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.stereotype.Repository;
 
+/**
+ * Idempotency keys, partitioned by day bucket (see DailyPartitions). The
+ * primary key is (key, bucket) because MySQL requires the partitioning column
+ * in every unique key, so uniqueness across a bucket boundary is enforced by
+ * tryInsert rather than by the index alone.
+ */
 @Repository
 public class IdempotencyKeyJdbcRepository {
 
     private final JdbcTemplate jdbcTemplate;
 
+    @Value("${order.idempotency.boundary-window-ms:600000}")
+    private long boundaryWindowMs;
+
     public IdempotencyKeyJdbcRepository(JdbcTemplate jdbcTemplate) {
         this.jdbcTemplate = jdbcTemplate;
     }
@@ -25,14 +35,45 @@ public class IdempotencyKeyJdbcRepository {
         return odt == null ? null : Timestamp.from(odt.toInstant());
     }
 
-    public boolean tryInsert(String key, String requestHash) {
-        final String sql = "INSERT INTO idempotency_keys (`key`, request_hash, created_at) VALUES (?,?,?)";
+    /**
+     * Claims key in today's bucket; returns false if the key already exists.
+     * A retry of a key claimed on an earlier day lands in a new bucket, so
+     * after the insert yesterday's bucket is checked too; when the key is there
+     * the new row is removed again and the caller replays the older one.
+     *
+     * Only within order.idempotency.boundary-window-ms of UTC midnight can the
+     * twin still be uncommitted (or sit in tomorrow's bucket on a skewed
+     * clock), so only there is the check a locking read over both neighbours,
+     * which waits for the twin to commit. Elsewhere a plain primary-key read is
+     * enough and takes no locks. A deadlock between two such locking reads
+     * surfaces as a PessimisticLockingFailureException.
+     */
+    public boolean tryInsert(String key, byte[] requestFp) {
+        final String sql = "INSERT INTO idempotency_keys (`key`, bucket, request_fp, created_at) VALUES (?,?,?,?)";
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        int bucket = (int) now.toLocalDate().toEpochDay();
         try {
-            jdbcTemplate.update(sql, key, requestHash, toTs(OffsetDateTime.now()));
-            return true;
+            jdbcTemplate.update(sql, key, bucket, requestFp, toTs(now));
         } catch (DuplicateKeyException ex) {
             return false;
         }
+        Integer neighbours = nearDayBoundary(now)
+                ? jdbcTemplate.queryForObject(
+                        "SELECT COUNT(1) FROM idempotency_keys WHERE `key`=? AND bucket IN (?,?) FOR UPDATE",
+                        Integer.class, key, bucket - 1, bucket + 1)
+                : jdbcTemplate.queryForObject("SELECT COUNT(1) FROM idempotency_keys WHERE `key`=? AND bucket=?",
+                        Integer.class, key, bucket - 1);
+        if (neighbours != null && neighbours > 0) {
+            jdbcTemplate.update("DELETE FROM idempotency_keys WHERE `key`=? AND bucket=?", key, bucket);
+            return false;
+        }
+        return true;
+    }
+
+    private boolean nearDayBoundary(OffsetDateTime now) {
+        long sinceMidnight = now.toLocalTime().toNanoOfDay() / 1_000_000L;
+        long window = Math.max(0L, boundaryWindowMs);
+        return sinceMidnight < window || sinceMidnight >= 86_400_000L - window;
     }
 
     public void storeResponse(String key, Long orderId, String responseJson) {
@@ -40,12 +81,18 @@ public class IdempotencyKeyJdbcRepository {
         jdbcTemplate.update(sql, orderId, responseJson, key);
     }
 
+    public int deleteByKey(String key) {
+        return jdbcTemplate.update("DELETE FROM idempotency_keys WHERE `key`=?", key);
+    }
+
     public Optional<IdempotencyKeyEntity> findByKey(String key) {
-        final String sql = "SELECT `key`, request_hash, response_json, order_id, created_at FROM idempotency_keys WHERE `key`=?";
+        final String sql = "SELECT `key`, request_hash, request_fp, response_json, order_id, created_at FROM idempotency_keys WHERE `key`=? "
+                + "ORDER BY bucket ASC LIMIT 1";
         var list = jdbcTemplate.query(sql, (rs, rn) -> {
             IdempotencyKeyEntity e = new IdempotencyKeyEntity();
             e.setKey(rs.getString("key"));
             e.setRequestHash(rs.getString("request_hash"));
+            e.setRequestFp(rs.getBytes("request_fp"));
             e.setResponseJson(rs.getString("response_json"));
             long oid = rs.getLong("order_id");
             e.setOrderId(rs.wasNull() ? null : oid);
@@ -55,4 +102,13 @@ public class IdempotencyKeyJdbcRepository {
         }, key);
         return list.isEmpty() ? Optional.empty() : Optional.of(list.get(0));
     }
+
+    /**
+     * Deletes up to limit keys created before cutoff; returns the number
+     * deleted. Only used when the table could not be partitioned.
+     */
+    public int deleteCreatedBefore(OffsetDateTime cutoff, int limit) {
+        final String sql = "DELETE FROM idempotency_keys WHERE created_at < ? LIMIT ?";
+        return jdbcTemplate.update(sql, toTs(cutoff), limit);
+    }
 }
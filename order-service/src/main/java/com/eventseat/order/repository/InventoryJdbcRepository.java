@@ -8,7 +8,6 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.StringJoiner;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
@@ -20,76 +19,89 @@ import org.springframework.stereotype.Repository;
 public class InventoryJdbcRepository {
 
     private final JdbcTemplate jdbcTemplate;
+    private final SeatOutboxJdbcRepository outbox;
 
-    public InventoryJdbcRepository(JdbcTemplate jdbcTemplate) {
+    public InventoryJdbcRepository(JdbcTemplate jdbcTemplate, SeatOutboxJdbcRepository outbox) {
         this.jdbcTemplate = jdbcTemplate;
+        this.outbox = outbox;
     }
 
     public static class HoldRow {
         public Long id;
         public Long attendeeId;
         public Long eventId;
-        public String seatIdsCsv;
+        public List<Long> seatIds = new ArrayList<>(); // from hold_seats, ascending
         public String status; // ACTIVE | EXPIRED | RELEASED
         public OffsetDateTime expiresAt;
+        // seatId -> basePrice of hold seats currently HELD in the hold's event;
+        // only filled by getHoldForCheckout
+        public Map<Long, BigDecimal> heldSeatPrices = new HashMap<>();
     }
 
-    private StringJoiner placeholders(int n) {
-        StringJoiner sj = new StringJoiner(",", "(", ")");
-        for (int i = 0; i < n; i++)
-            sj.add("?");
-        return sj;
-    }
-
-    public HoldRow getActiveHold(Long holdId) {
-        final String sql = "SELECT id, attendee_id, event_id, seat_ids_csv, status, expires_at " +
-                "FROM holds WHERE id=?";
-        List<HoldRow> list = jdbcTemplate.query(sql, (rs, rn) -> {
-            HoldRow h = new HoldRow();
-            h.id = rs.getLong("id");
-            h.attendeeId = rs.getLong("attendee_id");
-            h.eventId = rs.getLong("event_id");
-            h.seatIdsCsv = rs.getString("seat_ids_csv");
-            h.status = rs.getString("status");
-            Timestamp ts = rs.getTimestamp("expires_at");
-            h.expiresAt = ts == null ? null : ts.toInstant().atOffset(ZoneOffset.UTC);
+    /**
+     * Loads a hold, its seat ids and the prices of those seats that are still
+     * HELD in one joined query (instead of hold, hold_seats and seat price
+     * lookups). Returns null when the hold does not exist.
+     */
+    public HoldRow getHoldForCheckout(Long holdId) {
+        final String sql = "SELECT h.id, h.attendee_id, h.event_id, h.status, h.expires_at, " +
+                "hs.seat_id, s.base_price, s.status AS seat_status " +
+                "FROM holds h " +
+                "LEFT JOIN hold_seats hs ON hs.hold_id = h.id " +
+                "LEFT JOIN seats s ON s.id = hs.seat_id AND s.event_id = h.event_id " +
+                "WHERE h.id=? ORDER BY hs.seat_id";
+        return jdbcTemplate.query(sql, rs -> {
+            HoldRow h = null;
+            while (rs.next()) {
+                if (h == null) {
+                    h = new HoldRow();
+                    h.id = rs.getLong("id");
+                    h.attendeeId = rs.getLong("attendee_id");
+                    h.eventId = rs.getLong("event_id");
+                    h.status = rs.getString("status");
+                    Timestamp ts = rs.getTimestamp("expires_at");
+                    h.expiresAt = ts == null ? null : ts.toInstant().atOffset(ZoneOffset.UTC);
+                }
+                long seatId = rs.getLong("seat_id");
+                if (rs.wasNull())
+                    continue; // hold without seats
+                h.seatIds.add(seatId);
+                if ("HELD".equals(rs.getString("seat_status"))) {
+                    h.heldSeatPrices.put(seatId, rs.getBigDecimal("base_price"));
+                }
+            }
             return h;
         }, holdId);
-        return list.isEmpty() ? null : list.get(0);
     }
 
     /**
-     * Returns map seatId -> basePrice for the given event and seat ids,
-     * only if all seats are currently HELD. If any seat not HELD or mismatched
-     * event,
-     * returns a map with missing entries (caller should validate size).
+     * Set-based HELD -> SOLD for every seat of a hold, joined through hold_seats
+     * so the statement is the same whatever the seat count. Only applies while
+     * the hold is ACTIVE, so seats released by expiry and re-held elsewhere are
+     * never sold. Sold seats are appended to seat_outbox. Returns number of
+     * updated rows.
      */
-    public Map<Long, BigDecimal> getHeldSeatPrices(Long eventId, List<Long> seatIds) {
-        if (seatIds == null || seatIds.isEmpty())
-            return Map.of();
-        StringJoiner sj = placeholders(seatIds.size());
-        String sql = "SELECT id, base_price FROM seats WHERE event_id=? AND id IN " + sj + " AND status='HELD'";
-        List<Object> args = new ArrayList<>();
-        args.add(eventId);
-        args.addAll(seatIds);
-        Map<Long, BigDecimal> out = new HashMap<>();
-        jdbcTemplate.query(sql, args.toArray(), (rs) -> {
-            out.put(rs.getLong("id"), rs.getBigDecimal("base_price"));
-        });
-        return out;
+    public int updateHoldSeatsToSold(Long holdId, Long eventId) {
+        final String sql = "UPDATE seats s JOIN hold_seats hs ON hs.seat_id = s.id " +
+                "JOIN holds h ON h.id = hs.hold_id AND h.status='ACTIVE' " +
+                "SET s.status='SOLD' WHERE hs.hold_id=? AND s.event_id=? AND s.status='HELD'";
+        int sold = jdbcTemplate.update(sql, holdId, eventId);
+        if (sold > 0)
+            outbox.appendHoldSeats(holdId, eventId, "SOLD");
+        return sold;
     }
 
     /**
-     * Transitions seats from HELD to SOLD. Returns number of updated rows.
+     * Moves sold seats from the held to the sold counter of the event's
+     * event_inventory_summary row (owned by catalog-service). A missing row is
+     * left alone; catalog's rebuild job recreates it from seats. Called by
+     * InventorySummaryDeltas after commit, outside the checkout transaction.
      */
-    public int updateSeatsToSold(Long eventId, List<Long> seatIds) {
-        if (seatIds == null || seatIds.isEmpty())
-            return 0;
-        StringJoiner sj = placeholders(seatIds.size());
-        String sql = "UPDATE seats SET status='SOLD' WHERE event_id=? AND id IN " + sj + " AND status='HELD'";
-        List<Object> args = new ArrayList<>();
-        args.add(eventId);
-        args.addAll(seatIds);
-        return jdbcTemplate.update(sql, args.toArray());
+    public void applySoldToSummary(Long eventId, int count) {
+        if (eventId == null || count <= 0)
+            return;
+        final String sql = "UPDATE event_inventory_summary SET held_count = GREATEST(0, held_count - ?), " +
+                "sold_count = sold_count + ?, updated_at = CURRENT_TIMESTAMP(6) WHERE event_id=?";
+        jdbcTemplate.update(sql, count, count, eventId);
     }
 }
@@ -32,6 +32,15 @@ public class OrdersJdbcRepository {
     }
 
     public Long insertPending(Long attendeeId, Long eventId, BigDecimal amount, String currency, String seatIdsCsv) {
+        return insert(attendeeId, eventId, amount, currency, seatIdsCsv, OrderEntity.State.PENDING);
+    }
+
+    /**
+     * Inserts an order directly in the given state (e.g. CONFIRMED when payment
+     * already succeeded), saving the separate state update.
+     */
+    public Long insert(Long attendeeId, Long eventId, BigDecimal amount, String currency, String seatIdsCsv,
+            OrderEntity.State state) {
         final String sql = "INSERT INTO orders (attendee_id, event_id, amount, currency, seat_ids_csv, state, created_at, updated_at) "
                 + "VALUES (?,?,?,?,?,?,?,?)";
         KeyHolder kh = new GeneratedKeyHolder();
@@ -43,7 +52,7 @@ public class OrdersJdbcRepository {
             ps.setBigDecimal(3, amount);
             ps.setString(4, currency);
             ps.setString(5, seatIdsCsv);
-            ps.setString(6, OrderEntity.State.PENDING.name());
+            ps.setString(6, state.name());
             ps.setTimestamp(7, toTs(now));
             ps.setTimestamp(8, toTs(now));
             return ps;
@@ -6,6 +6,8 @@ import java.sql.Statement;
 import java.sql.Timestamp;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
@@ -42,4 +44,22 @@ public class PaymentAttemptJdbcRepository {
         Number key = kh.getKey();
         return key == null ? null : key.longValue();
     }
+
+    /**
+     * Inserts several attempts of one order with the same outcome (e.g.
+     * AUTHORIZE + CAPTURE) as a single JDBC batch.
+     */
+    public void insertAttempts(Long orderId, List<PaymentAttemptEntity.Type> types,
+            PaymentAttemptEntity.Status status, String reason) {
+        if (types.isEmpty())
+            return;
+        final String sql = "INSERT INTO payment_attempts (order_id, type, status, reason, created_at) "
+                + "VALUES (?,?,?,?,?)";
+        Timestamp now = toTs(OffsetDateTime.now());
+        List<Object[]> args = new ArrayList<>(types.size());
+        for (PaymentAttemptEntity.Type type : types) {
+            args.add(new Object[] { orderId, type.name(), status.name(), reason, now });
+        }
+        jdbcTemplate.batchUpdate(sql, args);
+    }
 }
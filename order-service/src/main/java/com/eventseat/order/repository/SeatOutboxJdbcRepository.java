@@ -0,0 +1,33 @@
+package com.eventseat.order.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Appends seat status changes made by order-service to the shared seat_outbox
+ * table (read and relayed by catalog-service). Always called right after the
+ * seats UPDATE, inside the same transaction, and records the rows that now
+ * carry the new status.
+ */
+@Repository
+public class SeatOutboxJdbcRepository {
+
+    public static final String SOURCE = "order";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SeatOutboxJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Appends every seat of a hold that now has the given status, joined
+     * through hold_seats.
+     */
+    public int appendHoldSeats(Long holdId, Long eventId, String status) {
+        final String sql = "INSERT INTO seat_outbox (event_id, seat_id, status, source, created_at) "
+                + "SELECT s.event_id, s.id, s.status, ?, NOW(3) FROM seats s JOIN hold_seats hs ON hs.seat_id = s.id "
+                + "WHERE hs.hold_id=? AND s.event_id=? AND s.status=?";
+        return jdbcTemplate.update(sql, SOURCE, holdId, eventId, status);
+    }
+}
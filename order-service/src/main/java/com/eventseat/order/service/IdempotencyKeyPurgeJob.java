@@ -0,0 +1,88 @@
+package com.eventseat.order.service;
+
+import com.eventseat.order.repository.DailyPartitions;
+import com.eventseat.order.repository.IdempotencyKeyJdbcRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.OffsetDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Expires idempotency keys after order.idempotency.retention-days so the table
+ * (and the primary-key index tryInsert probes) stays bounded. The table is
+ * partitioned by day bucket: each run pre-creates the next days' partitions
+ * and drops whole days past retention, which costs the same however many keys
+ * they hold. If the table is not partitioned the job falls back to deleting
+ * batches of order.idempotency.purge-batch via the created_at index. Table size
+ * is published as idempotency.table.rows / .bytes / .partitions. A retry after
+ * retention is treated as a new request.
+ */
+@Component
+public class IdempotencyKeyPurgeJob {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyKeyPurgeJob.class);
+
+    private static final String TABLE = "idempotency_keys";
+
+    private final IdempotencyKeyJdbcRepository idemRepo;
+    private final DailyPartitions partitions;
+    private final AtomicLong rows = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong partitionCount = new AtomicLong();
+
+    @Value("${order.idempotency.retention-days:1}")
+    private int retentionDays;
+
+    @Value("${order.idempotency.partitions-ahead:3}")
+    private int partitionsAhead;
+
+    @Value("${order.idempotency.purge-batch:1000}")
+    private int batchSize;
+
+    public IdempotencyKeyPurgeJob(IdempotencyKeyJdbcRepository idemRepo, JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry) {
+        this.idemRepo = idemRepo;
+        this.partitions = new DailyPartitions(jdbcTemplate, TABLE);
+        Gauge.builder("idempotency.table.rows", rows, AtomicLong::get).tag("table", TABLE)
+                .register(meterRegistry);
+        Gauge.builder("idempotency.table.bytes", bytes, AtomicLong::get).tag("table", TABLE)
+                .baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("idempotency.table.partitions", partitionCount, AtomicLong::get).tag("table", TABLE)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${order.idempotency.purge-ms:3600000}", initialDelay = 30_000L)
+    public void purgeExpiredKeys() {
+        int days = Math.max(1, retentionDays);
+        if (partitions.isPartitioned()) {
+            partitions.ensureAhead(partitionsAhead);
+            int dropped = partitions.dropBefore(DailyPartitions.today() - days);
+            if (dropped > 0) {
+                log.info("Dropped {} expired day partitions of '{}'", dropped, TABLE);
+            }
+        } else {
+            OffsetDateTime cutoff = OffsetDateTime.now().minusDays(days);
+            int limit = Math.max(1, batchSize);
+            int purged = 0;
+            while (true) {
+                int n = idemRepo.deleteCreatedBefore(cutoff, limit);
+                purged += n;
+                if (n < limit)
+                    break;
+            }
+            if (purged > 0) {
+                log.info("Purged {} idempotency keys older than {}", purged, cutoff);
+            }
+        }
+        DailyPartitions.Stats s = partitions.stats();
+        rows.set(s.rows());
+        bytes.set(s.bytes());
+        partitionCount.set(s.partitions());
+    }
+}
@@ -0,0 +1,66 @@
+package com.eventseat.order.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bounded in-memory copy of recently completed idempotency keys (request
+ * fingerprint and serialized response), so client retries are answered
+ * without touching the database. idempotency_keys stays the source of truth:
+ * entries are only added after the transaction that stored the response
+ * commits, and a miss falls through to the normal database path.
+ *
+ * Hit/miss/eviction counts are published as cache.* meters with
+ * cache=orders.idempotency.
+ */
+@Component
+public class IdempotencyResponseCache {
+
+    public record Entry(byte[] requestFp, String responseJson) {
+    }
+
+    private final Cache<String, Entry> cache;
+
+    public IdempotencyResponseCache(MeterRegistry meterRegistry,
+            @Value("${order.idempotency.cache.max-size:10000}") long maxSize,
+            @Value("${order.idempotency.cache.ttl-minutes:15}") long ttlMinutes) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(Math.max(1L, maxSize))
+                .expireAfterWrite(Duration.ofMinutes(Math.max(1L, ttlMinutes)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "orders.idempotency");
+    }
+
+    public Entry get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void put(String key, byte[] requestFp, String responseJson) {
+        cache.put(key, new Entry(requestFp, responseJson));
+    }
+
+    /**
+     * Caches the entry once the current transaction commits (immediately when
+     * none is active), so a rolled-back response is never replayed.
+     */
+    public void putAfterCommit(String key, byte[] requestFp, String responseJson) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(key, requestFp, responseJson);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(key, requestFp, responseJson);
+            }
+        });
+    }
+}
@@ -0,0 +1,90 @@
+package com.eventseat.order.service;
+
+import com.eventseat.order.web.dto.OrderResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.security.MessageDigest;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Local registry of order requests currently executing, keyed by
+ * Idempotency-Key. A retry that overlaps the first request waits up to
+ * order.idempotency.inflight-wait-ms for it and returns the same response,
+ * instead of blocking on the idempotency row lock or getting 409 "in flight".
+ *
+ * The first request's future completes only after createOrder returned, i.e.
+ * after its transaction committed. If it failed, timed out or the payload
+ * differs, the waiter falls through to the normal database path, which
+ * decides (replay, 409, or a fresh attempt after a rollback). Outcomes are
+ * counted as orders.idempotency.inflight{outcome}.
+ */
+@Component
+public class InFlightOrderRegistry {
+
+    private record InFlight(byte[] requestFp, CompletableFuture<OrderResponse> future) {
+    }
+
+    private final ConcurrentHashMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    @Value("${order.idempotency.inflight-wait-ms:5000}")
+    private long waitMs;
+
+    public InFlightOrderRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public OrderResponse run(String idemKey, byte[] requestFp, Supplier<OrderResponse> createOrder) {
+        if (idemKey == null || idemKey.isBlank())
+            return createOrder.get();
+        InFlight mine = new InFlight(requestFp, new CompletableFuture<>());
+        InFlight first = inFlight.putIfAbsent(idemKey, mine);
+        if (first != null) {
+            return await(first, requestFp, createOrder);
+        }
+        try {
+            OrderResponse resp = createOrder.get();
+            mine.future().complete(resp);
+            return resp;
+        } catch (RuntimeException ex) {
+            mine.future().completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(idemKey, mine);
+        }
+    }
+
+    private OrderResponse await(InFlight first, byte[] requestFp, Supplier<OrderResponse> createOrder) {
+        if (!MessageDigest.isEqual(first.requestFp(), requestFp)) {
+            // different payload under the same key: let the database path reject it
+            count("mismatch");
+            return createOrder.get();
+        }
+        try {
+            OrderResponse resp = first.future().get(Math.max(0L, waitMs), TimeUnit.MILLISECONDS);
+            count("joined");
+            return resp;
+        } catch (TimeoutException ex) {
+            count("timeout");
+        } catch (ExecutionException ex) {
+            // first attempt rolled back; this request runs (or replays) on its own
+            count("failed");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while waiting for request");
+        }
+        return createOrder.get();
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("orders.idempotency.inflight", "outcome", outcome).increment();
+    }
+}
@@ -0,0 +1,77 @@
+package com.eventseat.order.service;
+
+import com.eventseat.order.repository.InventoryJdbcRepository;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Buffers the sold-seat counts of committed checkouts and moves them in
+ * event_inventory_summary with one UPDATE per event every
+ * order.inventory-summary.flush-ms, so checkout never waits on the per-event
+ * summary row that hold writers also update. A count lost to a failed flush
+ * or a crash is repaired by catalog's rebuild job.
+ *
+ * catalog-service cannot see or discard these buffered counts, so when it
+ * recounts an event (seat edits, import, rebuild) between a sale's commit and
+ * the flush, the flush moves the already counted seats a second time: held
+ * floors at 0 and sold runs high until catalog's next rebuild. The window is
+ * at most one order.inventory-summary.flush-ms.
+ */
+@Component
+public class InventorySummaryDeltas {
+
+    private static final Logger log = LoggerFactory.getLogger(InventorySummaryDeltas.class);
+
+    private final InventoryJdbcRepository inventoryRepo;
+    private final ConcurrentHashMap<Long, Integer> pendingSold = new ConcurrentHashMap<>();
+
+    public InventorySummaryDeltas(InventoryJdbcRepository inventoryRepo) {
+        this.inventoryRepo = inventoryRepo;
+    }
+
+    /**
+     * Queues count sold seats once the current transaction commits
+     * (immediately when there is none).
+     */
+    public void addSoldOnCommit(Long eventId, int count) {
+        if (eventId == null || count <= 0)
+            return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingSold.merge(eventId, count, Integer::sum);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                pendingSold.merge(eventId, count, Integer::sum);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${order.inventory-summary.flush-ms:1000}", initialDelay = 1_000L)
+    public void flush() {
+        for (Long eventId : pendingSold.keySet()) {
+            // remove is atomic: counts merged after it start a new entry
+            Integer sold = pendingSold.remove(eventId);
+            if (sold == null)
+                continue;
+            try {
+                inventoryRepo.applySoldToSummary(eventId, sold);
+            } catch (Exception ex) {
+                log.warn("Failed to apply sold seats to inventory summary for eventId={}: {}", eventId,
+                        ex.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,83 @@
+package com.eventseat.order.service;
+
+import com.eventseat.order.web.dto.OrderCreateRequest;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * SHA-256 fingerprint of the canonical order request (attendee, event, sorted
+ * seats, currency, hold, simulate) used for idempotency checks.
+ *
+ * Fields are fed straight into a per-thread MessageDigest as tagged,
+ * length-prefixed binary (no formatted string is built), so the only
+ * allocation is the 32-byte result.
+ */
+public final class OrderRequestFingerprint {
+
+    public static final int LENGTH = 32;
+
+    // bump when the encoding changes so old fingerprints never match new ones
+    private static final byte VERSION = 1;
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private OrderRequestFingerprint() {
+    }
+
+    public static byte[] of(OrderCreateRequest req, List<Long> sortedSeatIds) {
+        MessageDigest md = SHA256.get();
+        md.reset();
+        md.update(VERSION);
+        putLong(md, req.getAttendeeId());
+        putLong(md, req.getEventId());
+        putInt(md, sortedSeatIds.size());
+        for (Long seatId : sortedSeatIds) {
+            putLong(md, seatId);
+        }
+        putString(md, req.getCurrency());
+        putLong(md, req.getHoldId());
+        String simulate = req.getSimulate();
+        putString(md, simulate == null || simulate.isEmpty() ? "" : simulate.trim().toLowerCase(Locale.ROOT));
+        return md.digest();
+    }
+
+    private static void putLong(MessageDigest md, Long v) {
+        if (v == null) {
+            md.update((byte) 0);
+            return;
+        }
+        md.update((byte) 1);
+        long x = v;
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            md.update((byte) (x >>> shift));
+        }
+    }
+
+    private static void putInt(MessageDigest md, int x) {
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            md.update((byte) (x >>> shift));
+        }
+    }
+
+    private static void putString(MessageDigest md, String s) {
+        if (s == null) {
+            md.update((byte) 0);
+            return;
+        }
+        md.update((byte) 1);
+        putInt(md, s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            md.update((byte) (c >>> 8));
+            md.update((byte) c);
+        }
+    }
+}
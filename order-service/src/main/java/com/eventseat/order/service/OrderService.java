@@ -2,6 +2,7 @@ package com.eventseat.order.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.eventseat.order.domain.IdempotencyKeyEntity;
 import com.eventseat.order.domain.OrderEntity;
 import com.eventseat.order.domain.PaymentAttemptEntity;
 import com.eventseat.order.repository.IdempotencyKeyJdbcRepository;
@@ -10,7 +11,10 @@ import com.eventseat.order.repository.OrdersJdbcRepository;
 import com.eventseat.order.repository.PaymentAttemptJdbcRepository;
 import com.eventseat.order.web.dto.OrderCreateRequest;
 import com.eventseat.order.web.dto.OrderResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.math.BigDecimal;
+import java.security.MessageDigest;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -20,147 +24,379 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 @Service
 public class OrderService {
 
+    private static final Logger log = LoggerFactory.getLogger(OrderService.class);
+
     private final OrdersJdbcRepository ordersRepo;
     private final PaymentAttemptJdbcRepository paymentRepo;
     private final IdempotencyKeyJdbcRepository idemRepo;
     private final InventoryJdbcRepository inventoryRepo;
     private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final IdempotencyResponseCache responseCache;
+
+    private final PaymentAuthorizer paymentAuthorizer;
+    private final InventorySummaryDeltas summaryDeltas;
+    private final TransactionTemplate tx;
+
+
+    @Value("${order.checkout.staged:true}")
+    private boolean stagedCheckout;
 
     public OrderService(
             OrdersJdbcRepository ordersRepo,
             PaymentAttemptJdbcRepository paymentRepo,
             IdempotencyKeyJdbcRepository idemRepo,
             InventoryJdbcRepository inventoryRepo,
-            ObjectMapper objectMapper) {
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            IdempotencyResponseCache responseCache,
+            PaymentAuthorizer paymentAuthorizer,
+            InventorySummaryDeltas summaryDeltas,
+            PlatformTransactionManager txManager) {
         this.ordersRepo = ordersRepo;
         this.paymentRepo = paymentRepo;
         this.idemRepo = idemRepo;
         this.inventoryRepo = inventoryRepo;
         this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.responseCache = responseCache;
+        this.paymentAuthorizer = paymentAuthorizer;
+        this.summaryDeltas = summaryDeltas;
+        this.tx = new TransactionTemplate(txManager);
     }
 
-    @Transactional
+    /**
+     * Checks the caller may order for the request's attendee and returns the
+     * request fingerprint; no database access.
+     */
+    public byte[] authorizeAndFingerprint(OrderCreateRequest req, Jwt jwt) {
+        validateOwnershipOrAdmin(jwt, req.getAttendeeId());
+        return OrderRequestFingerprint.of(req, sortedSeatIds(req));
+    }
+
+    /**
+     * Answers a retry of a recently completed request from the local cache,
+     * before any transaction or connection is opened. Returns null on a miss;
+     * the caller then goes through createOrder.
+     */
+    public OrderResponse findCachedReplay(String idemKey, byte[] requestFp) {
+        if (idemKey == null || idemKey.isBlank())
+            return null;
+        IdempotencyResponseCache.Entry entry = responseCache.get(idemKey);
+        if (entry == null)
+            return null;
+        if (!MessageDigest.isEqual(entry.requestFp(), requestFp)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Idempotency key re-used with different payload");
+        }
+        return parseCached(entry.responseJson());
+    }
+
+    /**
+     * Creates an order for a held seat set. With order.checkout.staged the
+     * payment is authorized between two short transactions; otherwise the whole
+     * (consolidated) checkout runs in one transaction.
+     */
     public OrderResponse createOrder(String idemKey, OrderCreateRequest req, Jwt jwt) {
         validateOwnershipOrAdmin(jwt, req.getAttendeeId());
         if (idemKey == null || idemKey.isBlank()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Missing Idempotency-Key header");
         }
-        // stable request signature (attendee,event,sorted
-        // seats,currency,holdId,simulate)
-        List<Long> sortedSeatIds = new ArrayList<>(req.getSeatIds());
-        sortedSeatIds.sort(Comparator.naturalOrder());
-        String canonical = String.format(Locale.ROOT, "aid=%d|eid=%d|seats=%s|cur=%s|hold=%d|sim=%s",
-                req.getAttendeeId(), req.getEventId(), sortedSeatIds, req.getCurrency(),
-                req.getHoldId(), req.getSimulate() == null ? "" : req.getSimulate().trim().toLowerCase(Locale.ROOT));
-        String requestHash = Integer.toHexString(canonical.hashCode());
-
-        // Try to insert idempotency record; if exists, return stored result when
-        // available.
-        boolean inserted = idemRepo.tryInsert(idemKey, requestHash);
-        if (!inserted) {
-            // Key exists - return stored response (if present) or 409 if mismatch
-            var existing = idemRepo.findByKey(idemKey)
-                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.CONFLICT, "Idempotency key in use"));
-            if (!Objects.equals(existing.getRequestHash(), requestHash)) {
-                throw new ResponseStatusException(HttpStatus.CONFLICT,
-                        "Idempotency key re-used with different payload");
+        List<Long> sortedSeatIds = sortedSeatIds(req);
+        byte[] requestFp = OrderRequestFingerprint.of(req, sortedSeatIds);
+        if (stagedCheckout) {
+            return stagedCheckout(idemKey, requestFp, req, sortedSeatIds);
+        }
+        Checkout result = tx.execute(status -> singleTransactionCheckout(idemKey, requestFp, req, sortedSeatIds));
+        if (result.paymentFailure() != null) {
+            // thrown after the commit, so the cancelled order and its attempt stay
+            failPayment(result.paymentFailure());
+        }
+        return result.response();
+    }
+
+    /**
+     * Outcome of the single-transaction checkout: the response, or the status
+     * of a failed payment whose CANCELLED order was recorded.
+     */
+    private record Checkout(OrderResponse response, PaymentAttemptEntity.Status paymentFailure) {
+    }
+
+    private Checkout singleTransactionCheckout(String idemKey, byte[] requestFp, OrderCreateRequest req,
+            List<Long> sortedSeatIds) {
+        OrderResponse replay = claimKey(idemKey, requestFp, req, sortedSeatIds);
+        if (replay != null) {
+            return new Checkout(replay, null);
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            Checkout result = checkout(idemKey, requestFp, req, sortedSeatIds);
+            outcome = result.paymentFailure() == null ? "success" : "payment_failed";
+            return result;
+        } finally {
+            sample.stop(meterRegistry.timer("orders.checkout",
+                    "path", "consolidated", "outcome", outcome));
+        }
+    }
+
+    /**
+     * Inserts the idempotency record. Returns null when this request claimed
+     * the key, the stored response when the key already completed, and throws
+     * 409 on a different payload or a request still in flight.
+     */
+    private OrderResponse claimKey(String idemKey, byte[] requestFp, OrderCreateRequest req,
+            List<Long> sortedSeatIds) {
+        try {
+            if (idemRepo.tryInsert(idemKey, requestFp)) {
+                return null;
             }
-            String cached = existing.getResponseJson();
-            if (cached == null || cached.isBlank()) {
-                // Another in-flight request with same key
-                throw new ResponseStatusException(HttpStatus.CONFLICT,
-                        "Request with same Idempotency-Key is in flight");
+        } catch (PessimisticLockingFailureException ex) {
+            // Twins straddling midnight deadlocked (or timed out) on the neighbour
+            // lock; this one is rolled back and replays the other on retry
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Request with same Idempotency-Key is in flight");
+        }
+        // Key exists - return stored response (if present) or 409 if mismatch
+        var existing = idemRepo.findByKey(idemKey)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.CONFLICT, "Idempotency key in use"));
+        if (!matches(existing, req, sortedSeatIds, requestFp)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Idempotency key re-used with different payload");
+        }
+        String cached = existing.getResponseJson();
+        if (cached == null || cached.isBlank()) {
+            // Another in-flight request with same key
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Request with same Idempotency-Key is in flight");
+        }
+        OrderResponse replay = parseCached(cached);
+        responseCache.put(idemKey, requestFp, cached);
+        return replay;
+    }
+
+    private record Reservation(Long orderId, Long holdId, BigDecimal amount, OrderResponse replay) {
+    }
+
+    /**
+     * Staged checkout: reserve commits the idempotency key and a PENDING order
+     * while the seats stay HELD; the payment is then authorized through
+     * PaymentAuthorizer with no transaction or connection held; confirm sells
+     * the seats and confirms the order in a second short transaction.
+     *
+     * A failed payment, or a confirm that fails after the payment went through
+     * (seats lost to hold expiry, or any database error), cancels the order and
+     * releases the key so the client can retry with it, like the rollback of the
+     * single-transaction path did; an authorization already taken is voided.
+     */
+    private OrderResponse stagedCheckout(String idemKey, byte[] requestFp, OrderCreateRequest req,
+            List<Long> sortedSeatIds) {
+        Reservation reservation = tx.execute(status -> reserve(idemKey, requestFp, req, sortedSeatIds));
+        if (reservation.replay() != null) {
+            return reservation.replay();
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            PaymentGateway.Result payment = paymentAuthorizer.authorize(new PaymentGateway.Request(
+                    reservation.orderId(), req.getAttendeeId(), reservation.amount(), req.getCurrency(),
+                    req.getSimulate()));
+            if (!payment.succeeded()) {
+                abandon(idemKey, reservation.orderId(), payment);
+                outcome = "payment_failed";
+                if (payment.status() == PaymentAttemptEntity.Status.TIMEOUT) {
+                    throw new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "Payment timeout");
+                }
+                throw new ResponseStatusException(HttpStatus.PAYMENT_REQUIRED, "Payment declined");
             }
+            OrderResponse resp;
             try {
-                return objectMapper.readValue(cached, OrderResponse.class);
-            } catch (JsonProcessingException e) {
-                throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to parse cached response");
+                resp = tx.execute(status -> confirm(idemKey, requestFp, req, sortedSeatIds, reservation));
+            } catch (RuntimeException ex) {
+                // Seats lost, or confirm failed outright (deadlock, lost connection):
+                // either way nothing was sold, so give the money back
+                paymentAuthorizer.voidAuthorization(payment.reference());
+                String reason = ex instanceof ResponseStatusException ? "voided-seats-not-held"
+                        : "voided-confirm-failed";
+                abandon(idemKey, reservation.orderId(),
+                        new PaymentGateway.Result(PaymentAttemptEntity.Status.SUCCESS, payment.reference(), reason));
+                throw ex;
             }
+            outcome = "success";
+            return resp;
+        } finally {
+            sample.stop(meterRegistry.timer("orders.checkout", "path", "staged", "outcome", outcome));
         }
+    }
 
-        // Validate hold
-        InventoryJdbcRepository.HoldRow hold = inventoryRepo.getActiveHold(req.getHoldId());
-        if (hold == null) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Hold not found");
+    private Reservation reserve(String idemKey, byte[] requestFp, OrderCreateRequest req, List<Long> sortedSeatIds) {
+        OrderResponse replay = claimKey(idemKey, requestFp, req, sortedSeatIds);
+        if (replay != null) {
+            return new Reservation(null, null, null, replay);
         }
-        if (!"ACTIVE".equals(hold.status)) {
-            throw new ResponseStatusException(HttpStatus.CONFLICT, "Hold is not ACTIVE");
+        InventoryJdbcRepository.HoldRow hold = inventoryRepo.getHoldForCheckout(req.getHoldId());
+        validateHold(hold, req, sortedSeatIds);
+        if (hold.heldSeatPrices.size() != sortedSeatIds.size()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "One or more seats are not HELD");
         }
-        if (!Objects.equals(hold.attendeeId, req.getAttendeeId()) || !Objects.equals(hold.eventId, req.getEventId())) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Hold does not belong to attendee or event");
+        BigDecimal amount = totalOf(sortedSeatIds, hold.heldSeatPrices);
+        Long orderId = ordersRepo.insertPending(req.getAttendeeId(), req.getEventId(), amount, req.getCurrency(),
+                joinCsv(sortedSeatIds));
+        if (orderId == null) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to create order");
         }
-        List<Long> holdSeatIds = splitCsv(hold.seatIdsCsv);
-        if (!new ArrayList<>(holdSeatIds).containsAll(sortedSeatIds) || sortedSeatIds.size() != holdSeatIds.size()) {
-            throw new ResponseStatusException(HttpStatus.CONFLICT, "Requested seats do not match hold");
+        return new Reservation(orderId, hold.id, amount, null);
+    }
+
+    private OrderResponse confirm(String idemKey, byte[] requestFp, OrderCreateRequest req, List<Long> sortedSeatIds,
+            Reservation reservation) {
+        // Only seats still HELD under the still ACTIVE hold; a partial sale rolls back
+        int sold = inventoryRepo.updateHoldSeatsToSold(reservation.holdId(), req.getEventId());
+        if (sold != sortedSeatIds.size()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Hold expired before payment completed");
         }
+        summaryDeltas.addSoldOnCommit(req.getEventId(), sold);
+        ordersRepo.updateState(reservation.orderId(), OrderEntity.State.CONFIRMED);
+        paymentRepo.insertAttempts(reservation.orderId(),
+                List.of(PaymentAttemptEntity.Type.AUTHORIZE, PaymentAttemptEntity.Type.CAPTURE),
+                PaymentAttemptEntity.Status.SUCCESS, null);
+        OrderResponse resp = toResponse(reservation.orderId(), req.getAttendeeId(), req.getEventId(), sortedSeatIds,
+                reservation.amount(), req.getCurrency(), OrderEntity.State.CONFIRMED);
+        cacheAndReturn(idemKey, requestFp, resp);
+        return resp;
+    }
 
-        // Validate seats are HELD and compute total amount
-        Map<Long, BigDecimal> prices = inventoryRepo.getHeldSeatPrices(req.getEventId(), sortedSeatIds);
+    /**
+     * Records the attempt, cancels the PENDING order and releases the key in
+     * its own transaction. Best effort: a failure is logged and the caller's
+     * error is still returned; the order then stays PENDING and the key
+     * claimed until the idempotency purge removes it.
+     */
+    private void abandon(String idemKey, Long orderId, PaymentGateway.Result payment) {
+        try {
+            tx.executeWithoutResult(status -> {
+                paymentRepo.insertAttempt(orderId, PaymentAttemptEntity.Type.AUTHORIZE, payment.status(),
+                        payment.reason());
+                ordersRepo.updateState(orderId, OrderEntity.State.CANCELLED);
+                idemRepo.deleteByKey(idemKey);
+            });
+        } catch (RuntimeException ex) {
+            log.warn("Failed to cancel orderId={} after {}: {}", orderId, payment.reason(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Consolidated checkout: one joined read for hold, seats and prices; on a
+     * synchronous payment success the seats are sold with one set-based UPDATE
+     * through hold_seats, the order is inserted directly as CONFIRMED and both
+     * payment attempts go in one batch. No statement depends on the seat count.
+     */
+    private Checkout checkout(String idemKey, byte[] requestFp, OrderCreateRequest req,
+            List<Long> sortedSeatIds) {
+        InventoryJdbcRepository.HoldRow hold = inventoryRepo.getHoldForCheckout(req.getHoldId());
+        validateHold(hold, req, sortedSeatIds);
+        Map<Long, BigDecimal> prices = hold.heldSeatPrices;
         if (prices.size() != sortedSeatIds.size()) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "One or more seats are not HELD");
         }
-        BigDecimal amount = sortedSeatIds.stream()
-                .map(prices::get)
-                .reduce(BigDecimal.ZERO, (a, b) -> a.add(b == null ? BigDecimal.ZERO : b));
-
-        // Insert order PENDING
+        BigDecimal amount = totalOf(sortedSeatIds, prices);
         String seatIdsCsv = joinCsv(sortedSeatIds);
-        Long orderId = ordersRepo.insertPending(req.getAttendeeId(), req.getEventId(), amount, req.getCurrency(),
-                seatIdsCsv);
-        if (orderId == null) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to create order");
-        }
 
-        // Mock payment
         String simulate = req.getSimulate() == null ? "" : req.getSimulate().trim().toLowerCase(Locale.ROOT);
-        if ("decline".equals(simulate)) {
-            paymentRepo.insertAttempt(orderId, PaymentAttemptEntity.Type.AUTHORIZE,
-                    PaymentAttemptEntity.Status.DECLINED, "mock-decline");
-            // Leave seats HELD for user to retry or release hold manually
-            OrderResponse resp = toResponse(orderId, req.getAttendeeId(), req.getEventId(), sortedSeatIds, amount,
-                    req.getCurrency(),
-                    OrderEntity.State.PENDING);
-            cacheAndReturn(idemKey, requestHash, resp);
-            throw new ResponseStatusException(HttpStatus.PAYMENT_REQUIRED, "Payment declined (mock)");
-        } else if ("timeout".equals(simulate)) {
-            paymentRepo.insertAttempt(orderId, PaymentAttemptEntity.Type.AUTHORIZE, PaymentAttemptEntity.Status.TIMEOUT,
-                    "mock-timeout");
-            OrderResponse resp = toResponse(orderId, req.getAttendeeId(), req.getEventId(), sortedSeatIds, amount,
-                    req.getCurrency(),
-                    OrderEntity.State.PENDING);
-            cacheAndReturn(idemKey, requestHash, resp);
-            throw new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "Payment timeout (mock)");
-        } else {
-            // Success path: AUTHORIZE + CAPTURE
-            paymentRepo.insertAttempt(orderId, PaymentAttemptEntity.Type.AUTHORIZE, PaymentAttemptEntity.Status.SUCCESS,
-                    null);
-            paymentRepo.insertAttempt(orderId, PaymentAttemptEntity.Type.CAPTURE, PaymentAttemptEntity.Status.SUCCESS,
-                    null);
+        if ("decline".equals(simulate) || "timeout".equals(simulate)) {
+            return recordFailedPayment(idemKey, req, amount, seatIdsCsv,
+                    "timeout".equals(simulate) ? PaymentAttemptEntity.Status.TIMEOUT
+                            : PaymentAttemptEntity.Status.DECLINED,
+                    "mock-" + simulate);
         }
 
         // Transition seats HELD -> SOLD
-        int sold = inventoryRepo.updateSeatsToSold(req.getEventId(), sortedSeatIds);
+        int sold = inventoryRepo.updateHoldSeatsToSold(hold.id, req.getEventId());
         if (sold != sortedSeatIds.size()) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Could not mark all seats as SOLD");
         }
+        summaryDeltas.addSoldOnCommit(req.getEventId(), sold);
 
-        // Update order state -> CONFIRMED
-        ordersRepo.updateState(orderId, OrderEntity.State.CONFIRMED);
+        Long orderId = ordersRepo.insert(req.getAttendeeId(), req.getEventId(), amount, req.getCurrency(),
+                seatIdsCsv, OrderEntity.State.CONFIRMED);
+        if (orderId == null) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to create order");
+        }
+        // Mock payment succeeded: AUTHORIZE + CAPTURE
+        paymentRepo.insertAttempts(orderId,
+                List.of(PaymentAttemptEntity.Type.AUTHORIZE, PaymentAttemptEntity.Type.CAPTURE),
+                PaymentAttemptEntity.Status.SUCCESS, null);
 
         OrderResponse resp = toResponse(orderId, req.getAttendeeId(), req.getEventId(), sortedSeatIds, amount,
                 req.getCurrency(),
                 OrderEntity.State.CONFIRMED);
-        cacheAndReturn(idemKey, requestHash, resp);
-        return resp;
+        cacheAndReturn(idemKey, requestFp, resp);
+        return new Checkout(resp, null);
+    }
+
+    /**
+     * Mock decline/timeout on the single-transaction path, recorded the way the
+     * staged path's abandon does: the order is inserted CANCELLED with its
+     * failed AUTHORIZE attempt and the idempotency key is released for a retry,
+     * all in the checkout transaction, which commits; the seats stay HELD.
+     * createOrder then returns 402/504.
+     */
+    private Checkout recordFailedPayment(String idemKey, OrderCreateRequest req, BigDecimal amount,
+            String seatIdsCsv, PaymentAttemptEntity.Status status, String reason) {
+        Long orderId = ordersRepo.insert(req.getAttendeeId(), req.getEventId(), amount, req.getCurrency(),
+                seatIdsCsv, OrderEntity.State.CANCELLED);
+        if (orderId == null) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to create order");
+        }
+        paymentRepo.insertAttempt(orderId, PaymentAttemptEntity.Type.AUTHORIZE, status, reason);
+        idemRepo.deleteByKey(idemKey);
+        return new Checkout(null, status);
+    }
+
+    private void failPayment(PaymentAttemptEntity.Status status) {
+        if (status == PaymentAttemptEntity.Status.TIMEOUT) {
+            throw new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "Payment timeout (mock)");
+        }
+        throw new ResponseStatusException(HttpStatus.PAYMENT_REQUIRED, "Payment declined (mock)");
+    }
+
+    private void validateHold(InventoryJdbcRepository.HoldRow hold, OrderCreateRequest req, List<Long> sortedSeatIds) {
+        if (hold == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Hold not found");
+        }
+        if (!"ACTIVE".equals(hold.status)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Hold is not ACTIVE");
+        }
+        if (!Objects.equals(hold.attendeeId, req.getAttendeeId()) || !Objects.equals(hold.eventId, req.getEventId())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Hold does not belong to attendee or event");
+        }
+        // both lists are sorted ascending, so equality means the exact same seat set
+        if (!hold.seatIds.equals(sortedSeatIds)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Requested seats do not match hold");
+        }
+    }
+
+    private BigDecimal totalOf(List<Long> seatIds, Map<Long, BigDecimal> prices) {
+        return seatIds.stream()
+                .map(prices::get)
+                .reduce(BigDecimal.ZERO, (a, b) -> a.add(b == null ? BigDecimal.ZERO : b));
     }
 
     @Transactional(readOnly = true)
@@ -180,10 +416,46 @@ public class OrderService {
         }
     }
 
-    private void cacheAndReturn(String idemKey, String requestHash, OrderResponse resp) {
+    private List<Long> sortedSeatIds(OrderCreateRequest req) {
+        List<Long> sortedSeatIds = new ArrayList<>(req.getSeatIds());
+        sortedSeatIds.sort(Comparator.naturalOrder());
+        return sortedSeatIds;
+    }
+
+    /**
+     * Rows written before request_fp existed only carry the legacy 32-bit
+     * request_hash; compare against that until the purge job ages them out.
+     */
+    private boolean matches(IdempotencyKeyEntity existing, OrderCreateRequest req, List<Long> sortedSeatIds,
+            byte[] requestFp) {
+        if (existing.getRequestFp() != null) {
+            return MessageDigest.isEqual(existing.getRequestFp(), requestFp);
+        }
+        return Objects.equals(existing.getRequestHash(), legacyRequestHash(req, sortedSeatIds));
+    }
+
+    // legacy request signature (attendee,event,sorted
+    // seats,currency,holdId,simulate)
+    private String legacyRequestHash(OrderCreateRequest req, List<Long> sortedSeatIds) {
+        String canonical = String.format(Locale.ROOT, "aid=%d|eid=%d|seats=%s|cur=%s|hold=%d|sim=%s",
+                req.getAttendeeId(), req.getEventId(), sortedSeatIds, req.getCurrency(),
+                req.getHoldId(), req.getSimulate() == null ? "" : req.getSimulate().trim().toLowerCase(Locale.ROOT));
+        return Integer.toHexString(canonical.hashCode());
+    }
+
+    private OrderResponse parseCached(String json) {
+        try {
+            return objectMapper.readValue(json, OrderResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to parse cached response");
+        }
+    }
+
+    private void cacheAndReturn(String idemKey, byte[] requestFp, OrderResponse resp) {
         try {
             String json = objectMapper.writeValueAsString(resp);
             idemRepo.storeResponse(idemKey, resp.getId(), json);
+            responseCache.putAfterCommit(idemKey, requestFp, json);
         } catch (JsonProcessingException e) {
             // Non-fatal; idempotency replay won't work but request succeeded
         }
@@ -0,0 +1,116 @@
+package com.eventseat.order.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs PaymentGateway calls on virtual threads, at most
+ * order.payment.max-concurrent at a time. A call that cannot get a permit
+ * within order.payment.acquire-timeout-ms, or does not answer within
+ * order.payment.timeout-ms, is reported as a TIMEOUT rather than an error, so
+ * checkout always ends with a recorded attempt. A call that times out is left
+ * to finish and voided if it authorized after all. Calls are timed as
+ * orders.payment.authorize{status}.
+ */
+@Component
+public class PaymentAuthorizer {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentAuthorizer.class);
+
+    private final PaymentGateway gateway;
+    private final MeterRegistry meterRegistry;
+    private final Semaphore permits;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${order.payment.acquire-timeout-ms:1000}")
+    private long acquireTimeoutMs;
+
+    @Value("${order.payment.timeout-ms:10000}")
+    private long timeoutMs;
+
+    public PaymentAuthorizer(PaymentGateway gateway, MeterRegistry meterRegistry,
+            @Value("${order.payment.max-concurrent:200}") int maxConcurrent) {
+        this.gateway = gateway;
+        this.meterRegistry = meterRegistry;
+        this.permits = new Semaphore(Math.max(1, maxConcurrent));
+    }
+
+    public PaymentGateway.Result authorize(PaymentGateway.Request request) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        PaymentGateway.Result result = call(request);
+        sample.stop(meterRegistry.timer("orders.payment.authorize", "status", result.status().name()));
+        return result;
+    }
+
+    private PaymentGateway.Result call(PaymentGateway.Request request) {
+        AtomicBoolean abandoned = new AtomicBoolean();
+        Future<PaymentGateway.Result> call = executor.submit(() -> {
+            if (!permits.tryAcquire(Math.max(0L, acquireTimeoutMs), TimeUnit.MILLISECONDS))
+                return PaymentGateway.Result.timeout("gateway-busy");
+            PaymentGateway.Result result;
+            try {
+                result = gateway.authorize(request);
+            } finally {
+                permits.release();
+            }
+            // The caller already reported a timeout and cancelled the order; an
+            // authorization that still went through must not stay on the card
+            if (abandoned.get() && result != null && result.succeeded()) {
+                log.info("Voiding late authorization {} for orderId={}", result.reference(), request.orderId());
+                voidAuthorization(result.reference());
+            }
+            return result;
+        });
+        try {
+            return call.get(Math.max(1L, timeoutMs), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            abandoned.set(true);
+            // No interrupt: a gateway call cut off mid-flight may still authorize,
+            // and the task has to see the result to void it
+            call.cancel(false);
+            return PaymentGateway.Result.timeout("gateway-timeout");
+        } catch (ExecutionException ex) {
+            log.warn("Payment authorization failed for orderId={}: {}", request.orderId(),
+                    ex.getCause() == null ? ex.getMessage() : ex.getCause().getMessage());
+            return PaymentGateway.Result.timeout("gateway-error");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            abandoned.set(true);
+            call.cancel(false);
+            return PaymentGateway.Result.timeout("interrupted");
+        }
+    }
+
+    /**
+     * Voids an authorization in the background; failures are only logged.
+     */
+    public void voidAuthorization(String reference) {
+        if (reference == null)
+            return;
+        executor.execute(() -> {
+            try {
+                gateway.voidAuthorization(reference);
+            } catch (Exception ex) {
+                log.warn("Failed to void payment authorization {}: {}", reference, ex.getMessage());
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
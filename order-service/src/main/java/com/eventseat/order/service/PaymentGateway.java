@@ -0,0 +1,46 @@
+package com.eventseat.order.service;
+
+import com.eventseat.order.domain.PaymentAttemptEntity;
+import java.math.BigDecimal;
+
+/**
+ * Payment provider used by the staged checkout. authorize is called with no
+ * transaction or database connection held and may block for the provider's
+ * network latency; PaymentAuthorizer bounds concurrency and waiting time.
+ */
+public interface PaymentGateway {
+
+    record Request(Long orderId, Long attendeeId, BigDecimal amount, String currency, String simulate) {
+    }
+
+    /**
+     * Outcome of an authorization. reference identifies a successful
+     * authorization at the provider; reason is stored on failed attempts.
+     */
+    record Result(PaymentAttemptEntity.Status status, String reference, String reason) {
+
+        public static Result success(String reference) {
+            return new Result(PaymentAttemptEntity.Status.SUCCESS, reference, null);
+        }
+
+        public static Result declined(String reason) {
+            return new Result(PaymentAttemptEntity.Status.DECLINED, null, reason);
+        }
+
+        public static Result timeout(String reason) {
+            return new Result(PaymentAttemptEntity.Status.TIMEOUT, null, reason);
+        }
+
+        public boolean succeeded() {
+            return status == PaymentAttemptEntity.Status.SUCCESS;
+        }
+    }
+
+    Result authorize(Request request);
+
+    /**
+     * Releases a successful authorization whose order could not be confirmed
+     * (e.g. the hold expired while the payment was authorized).
+     */
+    void voidAuthorization(String reference);
+}
@@ -0,0 +1,47 @@
+package com.eventseat.order.service;
+
+import java.util.Locale;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local stand-in for a payment provider. Every call sleeps
+ * order.payment.stub.latency-ms to model the network round trip (set it to
+ * benchmark the staged checkout), then approves, unless the request asks to
+ * simulate "decline" or "timeout".
+ */
+@Component
+@ConditionalOnProperty(name = "order.payment.gateway", havingValue = "stub", matchIfMissing = true)
+public class StubPaymentGateway implements PaymentGateway {
+
+    @Value("${order.payment.stub.latency-ms:0}")
+    private long latencyMs;
+
+    @Override
+    public Result authorize(Request request) {
+        pause();
+        String simulate = request.simulate() == null ? "" : request.simulate().trim().toLowerCase(Locale.ROOT);
+        if ("decline".equals(simulate))
+            return Result.declined("mock-decline");
+        if ("timeout".equals(simulate))
+            return Result.timeout("mock-timeout");
+        return Result.success("stub-" + UUID.randomUUID());
+    }
+
+    @Override
+    public void voidAuthorization(String reference) {
+        pause();
+    }
+
+    private void pause() {
+        if (latencyMs <= 0)
+            return;
+        try {
+            Thread.sleep(latencyMs);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.eventseat.order.web;
 
+import com.eventseat.order.service.InFlightOrderRegistry;
 import com.eventseat.order.service.OrderService;
 import com.eventseat.order.web.dto.OrderCreateRequest;
 import com.eventseat.order.web.dto.OrderResponse;
@@ -21,18 +22,28 @@ import org.springframework.web.bind.annotation.RestController;
 public class OrderController {
 
     private final OrderService orderService;
+    private final InFlightOrderRegistry inFlightOrders;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, InFlightOrderRegistry inFlightOrders) {
         this.orderService = orderService;
+        this.inFlightOrders = inFlightOrders;
     }
 
     // Create order idempotently. Requires "Idempotency-Key" header and ATTENDEE
-    // role.
+    // role. Retries of recently completed keys are answered from the local
+    // cache before a transaction is opened; retries overlapping a request still
+    // running on this instance wait for its response.
     @PostMapping
     public OrderResponse create(@RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody OrderCreateRequest req,
             @AuthenticationPrincipal Jwt jwt) {
-        return orderService.createOrder(idempotencyKey, req, jwt);
+        byte[] requestFp = orderService.authorizeAndFingerprint(req, jwt);
+        OrderResponse replay = orderService.findCachedReplay(idempotencyKey, requestFp);
+        if (replay != null) {
+            return replay;
+        }
+        return inFlightOrders.run(idempotencyKey, requestFp,
+                () -> orderService.createOrder(idempotencyKey, req, jwt));
     }
 
     // Get order by id (owner or ADMIN).
@@ -0,0 +1,200 @@
+package com.eventseat.order.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.eventseat.order.domain.OrderEntity;
+import com.eventseat.order.domain.PaymentAttemptEntity;
+import com.eventseat.order.repository.InventoryJdbcRepository;
+import com.eventseat.order.repository.OrdersJdbcRepository;
+import com.eventseat.order.repository.PaymentAttemptJdbcRepository;
+import com.eventseat.order.repository.SeatOutboxJdbcRepository;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntSupplier;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Timed comparison of the checkout write path before and after the set-based
+ * consolidation: the statement-per-step sequence (hold, hold_seats and seat
+ * price reads, PENDING insert, one insert per payment attempt, seat UPDATE by
+ * id list, CONFIRMED update) against the consolidated one (joined hold read,
+ * UPDATE through hold_seats, CONFIRMED insert, batched attempts).
+ *
+ * Runs against the MySQL database from application.properties and needs the
+ * catalog-service tables (seats, holds, hold_seats). One hold of
+ * benchmark.seats seats is created up front; every checkout runs in its own
+ * transaction and is rolled back, so each iteration sells the same seats.
+ * Not part of the regular test run; run it explicitly:
+ *
+ * mvn -pl order-service test -Dtest=CheckoutStatementsBenchmark
+ * -Dbenchmark.seats=4 -Dbenchmark.iterations=2000
+ */
+@SpringBootTest(properties = { "eureka.client.enabled=false", "spring.jpa.show-sql=false" })
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CheckoutStatementsBenchmark {
+
+    // Far above real ids; seats and holds carry no foreign key to events
+    private static final long EVENT_ID = 9_000_000_001L;
+    private static final long ATTENDEE_ID = 9_000_000_001L;
+
+    private final int seats = Integer.getInteger("benchmark.seats", 4);
+    private final int iterations = Integer.getInteger("benchmark.iterations", 2000);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private InventoryJdbcRepository inventoryRepo;
+
+    @Autowired
+    private OrdersJdbcRepository ordersRepo;
+
+    @Autowired
+    private PaymentAttemptJdbcRepository paymentRepo;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    private TransactionTemplate tx;
+    private long holdId;
+    private List<Long> seatIds;
+
+    @BeforeAll
+    void createHold() {
+        tx = new TransactionTemplate(txManager);
+        cleanUp();
+        seatIds = new ArrayList<>(seats);
+        for (int i = 1; i <= Math.max(1, seats); i++) {
+            GeneratedKeyHolder kh = new GeneratedKeyHolder();
+            int seatNumber = i;
+            jdbcTemplate.update(con -> {
+                var ps = con.prepareStatement("INSERT INTO seats (event_id, section, row_label, seat_number, "
+                        + "base_price, currency, status) VALUES (?,?,?,?,?,?,'HELD')", new String[] { "id" });
+                ps.setLong(1, EVENT_ID);
+                ps.setString(2, "BENCH");
+                ps.setString(3, "A");
+                ps.setString(4, String.valueOf(seatNumber));
+                ps.setBigDecimal(5, new BigDecimal("50.00"));
+                ps.setString(6, "USD");
+                return ps;
+            }, kh);
+            seatIds.add(kh.getKey().longValue());
+        }
+        String csv = seatIds.stream().map(String::valueOf).reduce((a, b) -> a + "," + b).orElse("");
+        Instant now = Instant.now();
+        GeneratedKeyHolder kh = new GeneratedKeyHolder();
+        jdbcTemplate.update(con -> {
+            var ps = con.prepareStatement("INSERT INTO holds (attendee_id, event_id, seat_ids_csv, created_at, "
+                    + "expires_at, status) VALUES (?,?,?,?,?,'ACTIVE')", new String[] { "id" });
+            ps.setLong(1, ATTENDEE_ID);
+            ps.setLong(2, EVENT_ID);
+            ps.setString(3, csv);
+            ps.setTimestamp(4, Timestamp.from(now));
+            ps.setTimestamp(5, Timestamp.from(now.plus(1, ChronoUnit.DAYS)));
+            return ps;
+        }, kh);
+        holdId = kh.getKey().longValue();
+        for (Long seatId : seatIds) {
+            jdbcTemplate.update("INSERT INTO hold_seats (hold_id, seat_id, event_id) VALUES (?,?,?)", holdId, seatId,
+                    EVENT_ID);
+        }
+    }
+
+    @Test
+    void statementPerStepVersusConsolidated() {
+        double before = measure("statement-per-step", this::statementPerStep);
+        double after = measure("consolidated", this::consolidated);
+        System.out.printf("Checkout of %d seats: statement-per-step %.1f us, consolidated %.1f us (x%.2f)%n",
+                seats, before, after, before / after);
+    }
+
+    /**
+     * Mean microseconds per checkout transaction after a warm-up of a tenth of
+     * the iterations.
+     */
+    private double measure(String name, IntSupplier checkout) {
+        int n = Math.max(1, iterations);
+        for (int i = 0; i < Math.max(1, n / 10); i++) {
+            runRolledBack(checkout);
+        }
+        long started = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            runRolledBack(checkout);
+        }
+        double micros = (System.nanoTime() - started) / 1_000.0 / n;
+        System.out.printf("%s: %.1f us per checkout over %d iterations%n", name, micros, n);
+        return micros;
+    }
+
+    private void runRolledBack(IntSupplier checkout) {
+        tx.executeWithoutResult(status -> {
+            assertEquals(seatIds.size(), checkout.getAsInt(), "every held seat must be sold");
+            status.setRollbackOnly();
+        });
+    }
+
+    // The sequence OrderService ran before the consolidation; its repository
+    // methods are gone, so their statements are inlined here
+    private int statementPerStep() {
+        jdbcTemplate.queryForMap("SELECT id, attendee_id, event_id, status, expires_at FROM holds WHERE id=?",
+                holdId);
+        List<Long> holdSeatIds = jdbcTemplate.queryForList(
+                "SELECT seat_id FROM hold_seats WHERE hold_id=? ORDER BY seat_id", Long.class, holdId);
+        String in = holdSeatIds.stream().map(id -> "?").collect(Collectors.joining(",", "(", ")"));
+        List<Object> args = new ArrayList<>();
+        args.add(EVENT_ID);
+        args.addAll(holdSeatIds);
+        BigDecimal amount = jdbcTemplate.queryForList(
+                "SELECT base_price FROM seats WHERE event_id=? AND id IN " + in + " AND status='HELD'",
+                BigDecimal.class, args.toArray()).stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        Long orderId = ordersRepo.insertPending(ATTENDEE_ID, EVENT_ID, amount, "USD", "");
+        paymentRepo.insertAttempt(orderId, PaymentAttemptEntity.Type.AUTHORIZE, PaymentAttemptEntity.Status.SUCCESS,
+                null);
+        paymentRepo.insertAttempt(orderId, PaymentAttemptEntity.Type.CAPTURE, PaymentAttemptEntity.Status.SUCCESS,
+                null);
+        int sold = jdbcTemplate.update(
+                "UPDATE seats SET status='SOLD' WHERE event_id=? AND id IN " + in + " AND status='HELD'",
+                args.toArray());
+        List<Object> outboxArgs = new ArrayList<>();
+        outboxArgs.add(SeatOutboxJdbcRepository.SOURCE);
+        outboxArgs.addAll(args);
+        jdbcTemplate.update("INSERT INTO seat_outbox (event_id, seat_id, status, source, created_at) "
+                + "SELECT s.event_id, s.id, s.status, ?, NOW(3) FROM seats s WHERE s.event_id=? AND s.id IN " + in
+                + " AND s.status='SOLD'", outboxArgs.toArray());
+        ordersRepo.updateState(orderId, OrderEntity.State.CONFIRMED);
+        return sold;
+    }
+
+    // The sequence of OrderService.checkout
+    private int consolidated() {
+        InventoryJdbcRepository.HoldRow hold = inventoryRepo.getHoldForCheckout(holdId);
+        BigDecimal amount = hold.heldSeatPrices.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        int sold = inventoryRepo.updateHoldSeatsToSold(holdId, EVENT_ID);
+        Long orderId = ordersRepo.insert(ATTENDEE_ID, EVENT_ID, amount, "USD", "", OrderEntity.State.CONFIRMED);
+        paymentRepo.insertAttempts(orderId,
+                List.of(PaymentAttemptEntity.Type.AUTHORIZE, PaymentAttemptEntity.Type.CAPTURE),
+                PaymentAttemptEntity.Status.SUCCESS, null);
+        return sold;
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM hold_seats WHERE event_id=?", EVENT_ID);
+        jdbcTemplate.update("DELETE FROM holds WHERE event_id=?", EVENT_ID);
+        jdbcTemplate.update("DELETE FROM seats WHERE event_id=?", EVENT_ID);
+    }
+}